@@ -0,0 +1,51 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.Map;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Points -> combat rank / ELO tier, as rendered for %combatrank_overall% and %tiertag_tier%.
+ * Points cycle through every band so the branch predictor cannot settle on one.
+ */
+@State(Scope.Thread)
+public class CombatRankBenchmark {
+    private final int[] points = new int[1024];
+    private int next;
+
+    private TierFormatter formatter;
+    private TierRecord record;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < points.length; i++) points[i] = (i * 37) % 130;
+        formatter = new TierFormatter("[Tiers] ", new OverrideStore(null, Fixtures.LOGGER, Fixtures.METRICS), () -> VanillaListIndex.EMPTY);
+        record = TierRecord.of("Fixture", "EU", 62, Map.of(Gamemode.VANILLA, new int[]{2, 0}));
+    }
+
+    private int nextPoints() {
+        return points[next++ & (points.length - 1)];
+    }
+
+    @Benchmark
+    public String rankFor() {
+        return TierFormatter.rankFor(nextPoints());
+    }
+
+    @Benchmark
+    public String coloredRank() {
+        return TierFormatter.coloredRank(nextPoints());
+    }
+
+    @Benchmark
+    public String combatRankPlaceholder() {
+        return formatter.combatRank("Fixture", record);
+    }
+
+    @Benchmark
+    public String eloTierPlaceholder() {
+        return formatter.eloTier("Fixture", record);
+    }
+}
@@ -0,0 +1,102 @@
+package vadlox.dev.simpleMCTiers;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+/**
+ * Local stand-ins for the upstreams, so benchmarks measure this plugin and not the network.
+ * The mctiers.com fixture answers every profile with mctiers_profile.json, renamed to the
+ * requested player; the VanillaList page is the copy bundled with the plugin.
+ */
+final class Fixtures {
+    static final Logger LOGGER = Logger.getLogger("SimpleMCTiers-Bench");
+    // recorded into like on a server, so instrumentation cost is part of every measurement
+    static final Metrics METRICS = new Metrics();
+
+    private Fixtures() {}
+
+    static byte[] resource(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/" + name)) {
+            if (in == null) throw new IllegalStateException("Missing fixture " + name);
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Reader reader(byte[] bytes) {
+        return new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8);
+    }
+
+    static VanillaListIndex vanillaList() {
+        try {
+            return VanillaListIndex.parse(reader(resource("vanillalist_cached.html")));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // An online-mode UUID (version 4), as IdentityResolver only trusts those
+    static UUID uuidOf(String name) {
+        UUID u = UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+        return new UUID((u.getMostSignificantBits() & ~0xF000L) | 0x4000L, u.getLeastSignificantBits());
+    }
+
+    // ------------------------------------------------------------------------
+    // mctiers.com
+    // ------------------------------------------------------------------------
+    // Serves /api/search_profile/<name> on a loopback port
+    static final class McTiersServer implements AutoCloseable {
+        static {
+            // without this, Nagle + delayed ACK add ~40ms to every response
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+
+        private final HttpServer server;
+        private final String profile = new String(resource("mctiers_profile.json"), StandardCharsets.UTF_8);
+
+        McTiersServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext("/api/search_profile/", ex -> {
+                String name = ex.getRequestURI().getPath().substring("/api/search_profile/".length());
+                byte[] body = profile.replace("\"Fixture\"", "\"" + name + "\"").getBytes(StandardCharsets.UTF_8);
+                ex.getResponseHeaders().set("Content-Type", "application/json");
+                ex.sendResponseHeaders(200, body.length);
+                try (OutputStream out = ex.getResponseBody()) { out.write(body); }
+            });
+            server.setExecutor(Executors.newFixedThreadPool(4, r -> {
+                Thread t = new Thread(r, "SimpleMCTiers-BenchServer");
+                t.setDaemon(true);
+                return t;
+            }));
+            server.start();
+        }
+
+        String baseUrl() {
+            return "http://127.0.0.1:" + server.getAddress().getPort() + "/api/search_profile/";
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+        }
+    }
+
+    // No retries, no pacing and a breaker that will not trip: only the request itself is measured
+    static HttpFetcher.Endpoint endpoint(String name) {
+        return new HttpFetcher.Endpoint(name, new HostLimiter(name, 64, 0),
+                new CircuitBreaker(Integer.MAX_VALUE, 1000L), Duration.ofSeconds(5), 0, 0L);
+    }
+}
@@ -0,0 +1,86 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * {@code /tier} and %tier_<mode>% rendering: a {@link TierChain} lookup over the default
+ * sources followed by the formatter, once per fallback path. A miss goes to the local mctiers.com fixture; the identity is
+ * already known, as it is for every player who joined the server.
+ */
+@State(Scope.Benchmark)
+public class FormatBenchmark {
+    private static final String PLAYER = "bevis_09";
+
+    // which step of override -> mctiers.com -> VanillaList -> ELO produces the answer
+    @Param({"override", "mctiers", "vanillalist", "elo"})
+    public String path;
+
+    private Fixtures.McTiersServer server;
+    private TierRepository tiers;
+    private TierFormatter formatter;
+    private TierChain chain;
+    private String key;
+    private String mode;
+    private Gamemode gamemode;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = new Fixtures.McTiersServer();
+        HttpFetcher http = new HttpFetcher(Duration.ofSeconds(1), Fixtures.METRICS);
+        IdentityResolver identities = new IdentityResolver("http://127.0.0.1:9/unused/", http,
+                Fixtures.endpoint("mojang"), 5000, Long.MAX_VALUE / 2, 300_000L, Fixtures.METRICS);
+        identities.remember(Fixtures.uuidOf(PLAYER), PLAYER);
+        TierCache<TierRecord> cache = new TierCache<>(5000, 3_600_000L, 3_600_000L, 300_000L);
+        tiers = new TierRepository(server.baseUrl(), http, Fixtures.endpoint("mctiers"), identities, cache, Runnable::run, Fixtures.METRICS);
+
+        OverrideStore overrides = new OverrideStore(null, Fixtures.LOGGER, Fixtures.METRICS);
+        VanillaListIndex vanillaList = Fixtures.vanillaList();
+        formatter = new TierFormatter("[Tiers] ", overrides, () -> vanillaList);
+        List<TierChain.Link> links = new ArrayList<>();
+        for (String id : TierSources.IDS) {
+            links.add(new TierChain.Link(TierSources.byId(id, overrides, tiers, () -> vanillaList, Fixtures.METRICS), 0));
+        }
+        chain = new TierChain(links, Fixtures.METRICS);
+
+        // the fixture profile ranks vanilla but not mace or nethop; VanillaList has nethop for PLAYER
+        mode = switch (path) {
+            case "override"    -> { overrides.upsert(PLAYER, "mace", 2, null, null); yield "mace"; }
+            case "mctiers"     -> "vanilla";
+            case "vanillalist" -> "nethop";
+            default            -> "mace";
+        };
+        gamemode = Gamemode.of(mode);
+        key = IdentityResolver.key(PLAYER);
+        tiers.fetch(PLAYER);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public String cacheHit() {
+        return render();
+    }
+
+    @Benchmark
+    public String cacheMiss() {
+        tiers.cache().invalidate(key);
+        return render();
+    }
+
+    private String render() {
+        return formatter.singleTier(chain.lookup(PLAYER).join().get(gamemode), PLAYER, mode);
+    }
+}
@@ -0,0 +1,47 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.List;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Player-name tab completion over 50,000 known names: a one-letter prefix (many matches,
+ * cut off at the cap), a longer one (a handful) and one nothing matches.
+ */
+@State(Scope.Benchmark)
+public class NameCompletionBenchmark {
+    private static final int LIMIT = 50;
+
+    private KnownNames names;
+
+    @Setup
+    public void setUp() {
+        names = new KnownNames();
+        Random random = new Random(42);
+        String chars = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789_";
+        for (int i = 0; i < 50_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            for (int n = 3 + random.nextInt(14); n > 0; n--) sb.append(chars.charAt(random.nextInt(chars.length())));
+            names.add(sb.toString());
+        }
+        names.add("Bevis_09");
+    }
+
+    @Benchmark
+    public List<String> shortPrefix() {
+        return names.startingWith("b", LIMIT);
+    }
+
+    @Benchmark
+    public List<String> longPrefix() {
+        return names.startingWith("Bevi", LIMIT);
+    }
+
+    @Benchmark
+    public List<String> noMatch() {
+        return names.startingWith("zzzzzz", LIMIT);
+    }
+}
@@ -0,0 +1,49 @@
+package vadlox.dev.simpleMCTiers;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Override reads, which every render does before anything else. The store is filled
+ * in memory only; its writer thread is never started, so nothing reaches SQLite.
+ */
+@State(Scope.Benchmark)
+public class OverrideBenchmark {
+    @Param({"100", "10000"})
+    public int players;
+
+    private OverrideStore overrides;
+
+    @Setup
+    public void setUp() {
+        overrides = new OverrideStore(null, Fixtures.LOGGER, Fixtures.METRICS);
+        for (int i = 0; i < players; i++) {
+            String name = "Player" + i;
+            overrides.upsert(name, "sword", 1 + i % 5, null, null);
+            overrides.upsert(name, null, null, TierFormatter.rankFor(i % 120), i % 120);
+        }
+    }
+
+    @Benchmark
+    public Integer tierHit() {
+        return overrides.tier("Player7", "sword");
+    }
+
+    @Benchmark
+    public Integer tierMiss() {
+        return overrides.tier("Player7", "mace");
+    }
+
+    @Benchmark
+    public Integer points() {
+        return overrides.points("Player7");
+    }
+
+    @Benchmark
+    public String combatRank() {
+        return overrides.combatRank("Player7");
+    }
+}
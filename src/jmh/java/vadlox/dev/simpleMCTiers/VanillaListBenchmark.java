@@ -0,0 +1,53 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.io.File;
+import java.io.IOException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Building the VanillaList index from the bundled page (what every refresh does while it
+ * downloads), mapping the index file (what startup does), and the per-placeholder lookups.
+ */
+@State(Scope.Benchmark)
+public class VanillaListBenchmark {
+    private byte[] page;
+    private File file;
+    private VanillaListIndex index;
+
+    @Setup
+    public void setUp() throws IOException {
+        page = Fixtures.resource("vanillalist_cached.html");
+        file = File.createTempFile("vanillalist-", ".idx");
+        VanillaListIndex.parse(Fixtures.reader(page)).write(file);
+        index = VanillaListIndex.map(file);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public VanillaListIndex parse() throws IOException {
+        return VanillaListIndex.parse(Fixtures.reader(page));
+    }
+
+    @Benchmark
+    public VanillaListIndex map() throws IOException {
+        return VanillaListIndex.map(file);
+    }
+
+    @Benchmark
+    public String lookupHit() {
+        return index.get("Bevis_09", "nethop");
+    }
+
+    @Benchmark
+    public String lookupMiss() {
+        return index.get("NotOnTheList", "vanilla");
+    }
+}
@@ -0,0 +1,301 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+
+/**
+ * Offline load driver: wires the plugin's lookup pipeline (HTTP client, identities, tier
+ * repository, VanillaList refresher, placeholder snapshots) against {@link UpstreamStub},
+ * joins N players and issues placeholder calls at a fixed rate, plus a trickle of
+ * /tier lookups for names nobody online has, which go through the Mojang stand-in.
+ * <p>
+ * {@code ./gradlew loadTest -PloadArgs="--players 500 --rate 5000 --latency 80 --errors 0.02"}
+ * <br>
+ * {@code --serve} only starts the stand-ins and prints their URLs, for a real test server
+ * whose upstream.*.url settings point at them.
+ */
+public final class LoadTest {
+    private static final Logger LOGGER = Logger.getLogger("SimpleMCTiers-LoadTest");
+    private static final String LOADING = "...";
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("players", "200"),        // players joining during the run
+            Map.entry("ramp", "10"),            // seconds over which they join
+            Map.entry("rate", "2000"),          // placeholder calls per second
+            Map.entry("duration", "60"),        // seconds
+            Map.entry("lookup-rate", "5"),      // /tier lookups of offline names per second
+            Map.entry("workers", "2"),          // placeholders.workers
+            Map.entry("deadline", "1500"),      // sources.deadline for mctiers + elo, ms
+            Map.entry("rps", "-1"),             // requests-per-second for mojang + mctiers (-1 = plugin defaults)
+            Map.entry("latency", "50"),         // stand-in response time, ms
+            Map.entry("jitter", "20"),          // +- ms
+            Map.entry("errors", "0.01"),        // share of requests answered with a 500
+            Map.entry("not-found", "0.05"),     // share of names answered with a 404
+            Map.entry("stub-threads", "16"),
+            Map.entry("host", "127.0.0.1"),
+            Map.entry("port", "0"),             // 0 = any free port
+            Map.entry("serve", "false")
+    );
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opt = parse(args);
+        UpstreamStub.Faults faults = new UpstreamStub.Faults(
+                Long.parseLong(opt.get("latency")), Long.parseLong(opt.get("jitter")),
+                Double.parseDouble(opt.get("errors")), Double.parseDouble(opt.get("not-found")));
+        try (UpstreamStub stub = new UpstreamStub(opt.get("host"), Integer.parseInt(opt.get("port")),
+                faults, Integer.parseInt(opt.get("stub-threads")))) {
+            if (Boolean.parseBoolean(opt.get("serve"))) {
+                System.out.println("upstream.mojang.url:      " + stub.mojangUrl());
+                System.out.println("upstream.mctiers.url:     " + stub.mctiersUrl());
+                System.out.println("upstream.vanillalist.url: " + stub.vanillaListUrl());
+                System.out.println("Serving until interrupted (" + faults + ")");
+                Thread.currentThread().join();
+            }
+            run(stub, opt);
+        }
+        System.exit(0);
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opt = new HashMap<>(DEFAULTS);
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || !DEFAULTS.containsKey(args[i].substring(2))) {
+                throw new IllegalArgumentException("Unknown option " + args[i] + "; known: " + DEFAULTS.keySet());
+            }
+            String key = args[i].substring(2);
+            // flags may omit their value
+            opt.put(key, i + 1 < args.length && !args[i + 1].startsWith("--") ? args[++i] : "true");
+        }
+        return opt;
+    }
+
+    // ------------------------------------------------------------------------
+    // Run
+    // ------------------------------------------------------------------------
+    private static void run(UpstreamStub stub, Map<String, String> opt) throws Exception {
+        int players = Integer.parseInt(opt.get("players"));
+        long rampNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(opt.get("ramp")));
+        double rate = Double.parseDouble(opt.get("rate"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(opt.get("duration")));
+        double lookupRate = Double.parseDouble(opt.get("lookup-rate"));
+        double rps = Double.parseDouble(opt.get("rps"));
+        Path dataFolder = Files.createTempDirectory("simplemctiers-loadtest");
+
+        // Same wiring and defaults as SimpleMCTiers#onEnable, minus Bukkit
+        Metrics metrics = new Metrics();
+        HttpFetcher http = new HttpFetcher(Duration.ofMillis(3000), metrics);
+        HttpFetcher.Endpoint mojang = endpoint("mojang", 2, rps >= 0 ? rps : 2, 4000, 2, 250, 5, 30);
+        HttpFetcher.Endpoint mctiers = endpoint("mctiers", 4, rps >= 0 ? rps : 5, 5000, 2, 250, 5, 30);
+        HttpFetcher.Endpoint vanillaSite = endpoint("vanillalist", 1, 0, 15000, 2, 1000, 3, 300);
+        TierCache<TierRecord> cache = new TierCache<>(5000, 3_600_000L, 900_000L, 300_000L);
+        IdentityResolver identities = new IdentityResolver(stub.mojangUrl(), http, mojang, 20_000,
+                604_800_000L, 300_000L, metrics);
+        ExecutorService background = Executors.newCachedThreadPool(daemon("SimpleMCTiers-LoadTestAsync"));
+        TierRepository tiers = new TierRepository(stub.mctiersUrl(), http, mctiers, identities, cache, background, metrics);
+        OverrideStore overrides = new OverrideStore(null, LOGGER, metrics);
+        VanillaListRefresher[] vanillaList = new VanillaListRefresher[1];
+        TierFormatter formatter = new TierFormatter("", overrides, () -> vanillaList[0].index());
+
+        long deadline = Long.parseLong(opt.get("deadline"));
+        List<TierChain.Link> links = new ArrayList<>();
+        for (String id : TierSources.IDS) {
+            TierSource source = TierSources.byId(id, overrides, tiers, () -> vanillaList[0].index(), metrics);
+            links.add(new TierChain.Link(source, id.equals("mctiers") || id.equals("elo") ? deadline : 0));
+        }
+        TierChain chain = new TierChain(links, metrics);
+
+        Map<String, Long> joinedAt = new ConcurrentHashMap<>();
+        Samples firstValue = new Samples(players);
+        PlaceholderResolver resolver = new PlaceholderResolver(LOGGER, user -> {
+            TierChain.Result result = chain.lookup(user).join();
+            TierRecord rec = tiers.peek(user);
+            PlaceholderResolver.Built built = new PlaceholderResolver.Built(
+                    formatter.placeholders(user, result, rec), formatter.state(user, result, rec),
+                    !result.degraded() && (rec == null || tiers.isCached(user)));
+            Long t = joinedAt.remove(user);
+            if (t != null) synchronized (firstValue) { firstValue.add(System.nanoTime() - t); }
+            return built;
+        }, LOADING, Integer.parseInt(opt.get("workers")), 300, metrics);
+        vanillaList[0] = new VanillaListRefresher(stub.vanillaListUrl(), http, vanillaSite, dataFolder.toFile(),
+                () -> LoadTest.class.getResourceAsStream("/vanillalist_cached.html"), idx -> resolver.refreshAll(), LOGGER);
+        chain.onLate(resolver::refreshByName);
+        tiers.onStored(resolver::refreshByName);
+        vanillaList[0].start(3600);
+        RefreshScheduler refresher = new RefreshScheduler(tiers, identities, resolver::trackedNames,
+                mctiers.limiter(), new RefreshScheduler.Budget(0.5, 5), mojang.limiter(), new RefreshScheduler.Budget(0.2, 5),
+                600, metrics);
+        tiers.refreshVia(refresher);
+        ScheduledExecutorService maintenance = Executors.newSingleThreadScheduledExecutor(daemon("SimpleMCTiers-Maintenance"));
+        maintenance.scheduleWithFixedDelay(refresher::tick, 1, 1, TimeUnit.SECONDS);
+
+        String[] names = new String[players];
+        UUID[] uuids = new UUID[players];
+        for (int i = 0; i < players; i++) {
+            names[i] = "Load" + i;
+            uuids[i] = UpstreamStub.uuidOf(names[i]);
+        }
+        // every key a snapshot holds (see TierFormatter#placeholders)
+        List<String> keys = new ArrayList<>(List.of("combatrank_overall", "tiertag_tier"));
+        for (Gamemode g : Gamemode.values()) {
+            keys.add("tier_" + g.id());
+            keys.add("vntier_" + g.id());
+        }
+        String[] keyArray = keys.toArray(new String[0]);
+
+        // /tier <name> for players who are not online: Mojang first, then mctiers.com
+        Samples lookups = new Samples(1024);
+        AtomicInteger lookupErrors = new AtomicInteger();
+        ExecutorService lookupPool = Executors.newFixedThreadPool(4, daemon("SimpleMCTiers-LoadTestLookup"));
+
+        System.out.printf(Locale.ROOT, "Running %ds: %d players joining over %ds, %.0f placeholder calls/s, %.1f lookups/s, %s%n",
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos), players, TimeUnit.NANOSECONDS.toSeconds(rampNanos),
+                rate, lookupRate, opt.get("latency") + "+-" + opt.get("jitter") + "ms upstream latency");
+
+        Samples calls = new Samples((int) Math.min(50_000_000L, (long) (rate * durationNanos / 1e9) + 1024));
+        long loading = 0;
+        int joined = 0;
+        long callInterval = (long) (1e9 / rate);
+        long lookupInterval = lookupRate > 0 ? (long) (1e9 / lookupRate) : 0;
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        long start = System.nanoTime(), end = start + durationNanos;
+        long nextCall = start, nextLookup = lookupRate > 0 ? start : Long.MAX_VALUE;
+        for (long now = start; now < end; now = System.nanoTime()) {
+            // joins, spread evenly over the ramp
+            int due = rampNanos <= 0 ? players : (int) Math.min(players, (now - start) * players / rampNanos + 1);
+            for (; joined < due; joined++) {
+                joinedAt.put(names[joined], System.nanoTime());
+                identities.remember(uuids[joined], names[joined]);
+                resolver.track(uuids[joined], names[joined]);
+            }
+            if (now >= nextLookup) {
+                nextLookup += lookupInterval;
+                String name = "Offline" + rnd.nextInt(Math.max(1, players));
+                lookupPool.execute(() -> {
+                    long t0 = System.nanoTime();
+                    try { tiers.fetch(name); } catch (IOException e) { lookupErrors.incrementAndGet(); }
+                    long took = System.nanoTime() - t0;
+                    synchronized (lookups) { lookups.add(took); }
+                });
+            }
+            if (now < nextCall) {
+                LockSupport.parkNanos(Math.min(nextCall, nextLookup) - now);
+                continue;
+            }
+            // behind schedule: keep calling without parking until caught up
+            nextCall += callInterval;
+            if (joined == 0) continue;
+            int p = rnd.nextInt(joined);
+            String key = keyArray[rnd.nextInt(keyArray.length)];
+            long t0 = System.nanoTime();
+            String v = resolver.get(uuids[p], names[p], key, "");
+            calls.add(System.nanoTime() - t0);
+            if (v == LOADING) loading++;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        resolver.shutdown();
+        maintenance.shutdownNow();
+        vanillaList[0].shutdown();
+        lookupPool.shutdownNow();
+        background.shutdownNow();
+
+        // ------------------------------------------------------------------------
+        // Report
+        // ------------------------------------------------------------------------
+        System.out.printf(Locale.ROOT, "%nPlaceholder calls: %d in %.1fs = %.0f/s (target %.0f/s), %.2f%% answered '%s'%n",
+                calls.size(), seconds, calls.size() / seconds, rate, calls.size() == 0 ? 0 : 100.0 * loading / calls.size(), LOADING);
+        System.out.println("  get() latency:      " + calls.summary());
+        synchronized (firstValue) {
+            System.out.println("  join -> values:     " + firstValue.summary() + " (" + firstValue.size() + "/" + players + " players)");
+        }
+        synchronized (lookups) {
+            System.out.println("/tier lookups:        " + lookups.summary() + ", " + lookupErrors.get() + " failed");
+        }
+        System.out.println("Stand-in responses (" + stub.total("mojang") + " mojang, "
+                + stub.total("mctiers") + " mctiers, " + stub.total("vanillalist") + " vanillalist):");
+        for (String line : stub.report()) System.out.println("  " + line);
+        System.out.println("Plugin metrics:");
+        for (String line : metrics.summary()) {
+            if (line.startsWith("simplemctiers_upstream") || line.startsWith("simplemctiers_lookups")
+                    || line.startsWith("simplemctiers_snapshot") || line.startsWith("simplemctiers_cache_entries")
+                    || line.startsWith("simplemctiers_refresh")
+                    || line.startsWith("simplemctiers_source") || line.startsWith("simplemctiers_render_source")) {
+                System.out.println("  " + line);
+            }
+        }
+    }
+
+    private static HttpFetcher.Endpoint endpoint(String name, int maxConcurrent, double rps, long timeoutMs,
+                                                 int retries, long backoffMs, int failureThreshold, long openSeconds) {
+        return new HttpFetcher.Endpoint(name, new HostLimiter(name, maxConcurrent, rps),
+                new CircuitBreaker(failureThreshold, openSeconds * 1000L), Duration.ofMillis(timeoutMs), retries, backoffMs);
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            return t;
+        };
+    }
+
+    // ------------------------------------------------------------------------
+    // Latency samples (not thread-safe; exact percentiles from every sample)
+    // ------------------------------------------------------------------------
+    private static final class Samples {
+        private long[] nanos;
+        private int size;
+
+        Samples(int capacity) {
+            nanos = new long[Math.max(16, capacity)];
+        }
+
+        void add(long n) {
+            if (size == nanos.length) nanos = Arrays.copyOf(nanos, size * 2);
+            nanos[size++] = n;
+        }
+
+        int size() {
+            return size;
+        }
+
+        String summary() {
+            if (size == 0) return "no samples";
+            long[] s = Arrays.copyOf(nanos, size);
+            Arrays.sort(s);
+            return "p50 " + time(at(s, 0.5)) + "  p99 " + time(at(s, 0.99)) + "  p99.9 " + time(at(s, 0.999))
+                    + "  max " + time(s[s.length - 1]);
+        }
+
+        private static long at(long[] sorted, double q) {
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(q * sorted.length) - 1)];
+        }
+
+        private static String time(long nanos) {
+            if (nanos < 10_000) return String.format(Locale.ROOT, "%.2fus", nanos / 1e3);
+            if (nanos < 10_000_000) return String.format(Locale.ROOT, "%.0fus", nanos / 1e3);
+            return String.format(Locale.ROOT, "%.0fms", nanos / 1e6);
+        }
+    }
+}
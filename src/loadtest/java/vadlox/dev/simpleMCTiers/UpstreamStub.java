@@ -0,0 +1,180 @@
+package vadlox.dev.simpleMCTiers;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-ins for Mojang, mctiers.com and VanillaList on one loopback port:
+ * <pre>
+ *   /mojang/users/profiles/minecraft/&lt;name&gt;  {"id": ..., "name": ...}
+ *   /mctiers/api/search_profile/&lt;name&gt;        mctiers_profile.json, renamed to the player
+ *   /vanillalist/                             the bundled vanillalist_cached.html (ETag aware)
+ * </pre>
+ * Every response can be delayed, failed with a 500 at random, or answered with a 404 for a
+ * fixed share of names (so negative caching sees the same names every time).
+ */
+final class UpstreamStub implements AutoCloseable {
+    static {
+        // without this, Nagle + delayed ACK add ~40ms to every response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    // latency = latencyMs +- jitterMs; errorRate per request, notFoundRate per name
+    record Faults(long latencyMs, long jitterMs, double errorRate, double notFoundRate) {}
+
+    private static final String ETAG = "\"loadtest\"";
+
+    private final HttpServer server;
+    private final Faults faults;
+    private final byte[] vanillaList = resource("vanillalist_cached.html");
+    private final String profile = new String(resource("mctiers_profile.json"), StandardCharsets.UTF_8);
+    // "<upstream> <status>" -> responses sent
+    private final ConcurrentHashMap<String, LongAdder> responses = new ConcurrentHashMap<>();
+
+    UpstreamStub(String host, int port, Faults faults, int threads) throws IOException {
+        this.faults = faults;
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.createContext("/mojang/users/profiles/minecraft/", ex -> handle(ex, "mojang", name -> {
+            UUID u = uuidOf(name);
+            return String.format("{\"id\":\"%016x%016x\",\"name\":\"%s\"}",
+                    u.getMostSignificantBits(), u.getLeastSignificantBits(), name);
+        }));
+        server.createContext("/mctiers/api/search_profile/", ex -> handle(ex, "mctiers",
+                name -> profile.replace("\"Fixture\"", "\"" + name + "\"")));
+        server.createContext("/vanillalist/", this::vanillaList);
+        server.setExecutor(Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "SimpleMCTiers-LoadTestStub");
+            t.setDaemon(true);
+            return t;
+        }));
+        server.start();
+    }
+
+    String mojangUrl()      { return root() + "/mojang/users/profiles/minecraft/"; }
+    String mctiersUrl()     { return root() + "/mctiers/api/search_profile/"; }
+    String vanillaListUrl() { return root() + "/vanillalist/"; }
+
+    private String root() {
+        InetSocketAddress a = server.getAddress();
+        return "http://" + a.getHostString() + ":" + a.getPort();
+    }
+
+    // Responses sent so far, as "upstream status=count" lines
+    List<String> report() {
+        Map<String, Long> sorted = new TreeMap<>();
+        responses.forEach((k, v) -> sorted.put(k, v.sum()));
+        List<String> out = new ArrayList<>();
+        sorted.forEach((k, v) -> out.add(k + " = " + v));
+        return out;
+    }
+
+    long total(String upstream) {
+        long n = 0;
+        for (Map.Entry<String, LongAdder> e : responses.entrySet()) {
+            if (e.getKey().startsWith(upstream + " ")) n += e.getValue().sum();
+        }
+        return n;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    // ------------------------------------------------------------------------
+    // Handlers
+    // ------------------------------------------------------------------------
+    private interface Body {
+        String of(String name);
+    }
+
+    private void handle(HttpExchange ex, String upstream, Body body) throws IOException {
+        String path = ex.getRequestURI().getPath();
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        delay();
+        if (fail()) {
+            send(ex, upstream, 500, new byte[0]);
+        } else if (name.isEmpty() || missing(upstream, name)) {
+            send(ex, upstream, 404, new byte[0]);
+        } else {
+            ex.getResponseHeaders().set("Content-Type", "application/json");
+            send(ex, upstream, 200, body.of(name).getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void vanillaList(HttpExchange ex) throws IOException {
+        delay();
+        if (fail()) {
+            send(ex, "vanillalist", 500, new byte[0]);
+        } else if (ETAG.equals(ex.getRequestHeaders().getFirst("If-None-Match"))) {
+            send(ex, "vanillalist", 304, null);
+        } else {
+            ex.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            ex.getResponseHeaders().set("ETag", ETAG);
+            send(ex, "vanillalist", 200, vanillaList);
+        }
+    }
+
+    private void send(HttpExchange ex, String upstream, int status, byte[] body) throws IOException {
+        responses.computeIfAbsent(upstream + " " + status, k -> new LongAdder()).increment();
+        ex.sendResponseHeaders(status, body == null || body.length == 0 ? -1 : body.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            if (body != null) out.write(body);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Fault injection
+    // ------------------------------------------------------------------------
+    private void delay() {
+        long ms = faults.latencyMs();
+        if (faults.jitterMs() > 0) ms += ThreadLocalRandom.current().nextLong(-faults.jitterMs(), faults.jitterMs() + 1);
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean fail() {
+        return faults.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < faults.errorRate();
+    }
+
+    // The same names are missing on every request, independently per upstream
+    private boolean missing(String upstream, String name) {
+        if (faults.notFoundRate() <= 0) return false;
+        int h = (upstream + ":" + IdentityResolver.key(name)).hashCode() * 0x9E3779B9;
+        return ((h >>> 8) & 0xFFFF) / 65536.0 < faults.notFoundRate();
+    }
+
+    // An online-mode UUID (version 4), as IdentityResolver only trusts those
+    static UUID uuidOf(String name) {
+        UUID u = UUID.nameUUIDFromBytes(IdentityResolver.key(name).getBytes(StandardCharsets.UTF_8));
+        return new UUID((u.getMostSignificantBits() & ~0xF000L) | 0x4000L, u.getLeastSignificantBits());
+    }
+
+    static byte[] resource(String name) {
+        try (InputStream in = UpstreamStub.class.getResourceAsStream("/" + name)) {
+            if (in == null) throw new IllegalStateException("Missing fixture " + name);
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
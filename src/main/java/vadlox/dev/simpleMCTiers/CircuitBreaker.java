@@ -0,0 +1,65 @@
+package vadlox.dev.simpleMCTiers;
+
+/**
+ * Consecutive-failure circuit breaker. After {@code failureThreshold} failures in a row the
+ * circuit opens and calls fail fast for {@code openMs}; then a single trial call is let
+ * through (half-open) and its outcome closes or re-opens the circuit.
+ */
+final class CircuitBreaker {
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openMs;
+
+    private State state = State.CLOSED;
+    private int failures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(int failureThreshold, long openMs) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openMs = openMs;
+    }
+
+    // @return true if the caller may go ahead with a request
+    synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() - openedAt < openMs) return false;
+                state = State.HALF_OPEN;
+                trialInFlight = false;
+                // fall through
+            default: // HALF_OPEN
+                if (trialInFlight) return false;
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    synchronized void onSuccess() {
+        state = State.CLOSED;
+        failures = 0;
+        trialInFlight = false;
+    }
+
+    synchronized void onFailure() {
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    // The call was abandoned (e.g. shutdown) and says nothing about the upstream
+    synchronized void onAbort() {
+        trialInFlight = false;
+    }
+
+    synchronized State state() {
+        // report an expired open window as half-open without consuming the trial
+        if (state == State.OPEN && System.currentTimeMillis() - openedAt >= openMs) return State.HALF_OPEN;
+        return state;
+    }
+}
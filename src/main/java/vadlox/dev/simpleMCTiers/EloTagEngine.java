@@ -0,0 +1,189 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+
+/**
+ * %tiertag_tier% from another plugin's ELO placeholder (what pvp_tag.py used to do). ELO
+ * values map onto a threshold table whose colour codes are translated once at load. Online
+ * players are re-read round-robin, a few per tick, so a full pass takes {@code period} ticks
+ * without a burst, and a tag is only recomputed when the player's raw ELO text changes.
+ */
+final class EloTagEngine {
+    // elo <= max gets tag; the last band (max = +Inf) covers everything above
+    record Band(double max, String tag) {}
+
+    // the table pvp_tag.py shipped with
+    static final List<Band> DEFAULT_BANDS = List.of(
+            new Band(500,   "&x&A&3&4&7&0&2LT5"),
+            new Band(6000,  "&x&D&2&5&D&0&4HT5"),
+            new Band(8000,  "&x&C&0&B&D&A&2LT4"),
+            new Band(10000, "&x&E&B&E&A&C&8HT4"),
+            new Band(15000, "&x&1&2&C&6&5&DLT3"),
+            new Band(20000, "&x&0&4&F&9&6&AHT3"),
+            new Band(25000, "&x&0&2&7&7&D&0LT2"),
+            new Band(30000, "&x&2&1&C&9&F&BHT2"),
+            new Band(40000, "&x&B&0&0&4&C&ELT1"),
+            new Band(Double.POSITIVE_INFINITY, "&x&F&9&0&6&E&CHT1")
+    );
+
+    // tag == null when the placeholder did not resolve (its plugin is missing)
+    private record State(String raw, String tag) {}
+
+    private final double[] maxes;
+    private final String[] tags;
+    private final String placeholder;
+    private final Function<Player, String> reader;
+    private final BiConsumer<Player, Runnable> onPlayerThread;
+    private final int period;
+    private final ConcurrentHashMap<UUID, State> states = new ConcurrentHashMap<>();
+
+    private final Metrics.Counter changed;
+    private final Metrics.Counter unchanged;
+    private final Metrics.Counter unresolved;
+
+    // round-robin position; only touched by the ticking thread
+    private List<Player> round = List.of();
+    private int cursor;
+
+    /**
+     * @param reader         resolves {@code placeholder} for a player (PlaceholderAPI)
+     * @param onPlayerThread runs a task where the player may be read (the player's region on Folia)
+     * @param period         ticks for one pass over every online player
+     */
+    EloTagEngine(List<Band> bands, String placeholder, Function<Player, String> reader,
+                 BiConsumer<Player, Runnable> onPlayerThread, int period, Metrics metrics) {
+        this.maxes = new double[bands.size()];
+        this.tags = new String[bands.size()];
+        for (int i = 0; i < bands.size(); i++) {
+            maxes[i] = bands.get(i).max();
+            tags[i] = ChatColor.translateAlternateColorCodes('&', bands.get(i).tag());
+        }
+        this.placeholder = placeholder;
+        this.reader = reader;
+        this.onPlayerThread = onPlayerThread;
+        this.period = Math.max(1, period);
+        this.changed    = metrics.counter("simplemctiers_elo_tag_reads_total", "result", "changed");
+        this.unchanged  = metrics.counter("simplemctiers_elo_tag_reads_total", "result", "unchanged");
+        this.unresolved = metrics.counter("simplemctiers_elo_tag_reads_total", "result", "unresolved");
+        metrics.gauge("simplemctiers_cache_entries", states::size, "cache", "elo_tags");
+    }
+
+    /**
+     * Bands from config (a list of {max, tag}, ascending, the last without max).
+     * @return the parsed table, or the default one when the list is missing or invalid
+     */
+    static List<Band> bands(List<Map<?, ?>> config, Logger logger) {
+        if (config == null || config.isEmpty()) return DEFAULT_BANDS;
+        List<Band> out = new ArrayList<>(config.size());
+        double last = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < config.size(); i++) {
+            Map<?, ?> m = config.get(i);
+            Object tag = m.get("tag");
+            Object max = m.get("max");
+            boolean isLast = i == config.size() - 1;
+            double v;
+            if (tag == null || (max == null) != isLast) {
+                logger.warning("elo-tag.tiers entry " + (i + 1) + " needs a tag and, except for the last entry, a max; using the default table");
+                return DEFAULT_BANDS;
+            }
+            try {
+                v = isLast ? Double.POSITIVE_INFINITY : Double.parseDouble(max.toString());
+            } catch (NumberFormatException e) {
+                logger.warning("elo-tag.tiers entry " + (i + 1) + " has a non-numeric max; using the default table");
+                return DEFAULT_BANDS;
+            }
+            if (v <= last) {
+                logger.warning("elo-tag.tiers must be in ascending order of max; using the default table");
+                return DEFAULT_BANDS;
+            }
+            last = v;
+            out.add(new Band(v, tag.toString()));
+        }
+        return out;
+    }
+
+    // ------------------------------------------------------------------------
+    // Reads (any thread)
+    // ------------------------------------------------------------------------
+    // @return the player's tag, or null when none is known yet or the ELO placeholder did not resolve
+    String tag(UUID id) {
+        State s = states.get(id);
+        return s != null ? s.tag() : null;
+    }
+
+    String tagFor(double elo) {
+        int lo = 0, hi = maxes.length - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (elo <= maxes[mid]) hi = mid; else lo = mid + 1;
+        }
+        return tags[lo];
+    }
+
+    // ------------------------------------------------------------------------
+    // Updates
+    // ------------------------------------------------------------------------
+    // Called every tick: hands the next slice of online players to their threads
+    void tick() {
+        if (cursor >= round.size()) {
+            round = new ArrayList<>(Bukkit.getOnlinePlayers());
+            cursor = 0;
+            if (round.isEmpty()) return;
+        }
+        int slice = (round.size() + period - 1) / period;
+        for (int n = 0; n < slice && cursor < round.size(); n++) {
+            Player p = round.get(cursor++);
+            if (p.isOnline()) onPlayerThread.accept(p, () -> update(p));
+        }
+    }
+
+    // Read one player now, on a thread that owns them (the tick slice, or their join)
+    void update(Player p) {
+        String raw;
+        try {
+            raw = reader.apply(p);
+        } catch (RuntimeException e) {
+            raw = null; // a broken expansion reads as 0, as the script did
+        }
+        if (raw == null) raw = "";
+        State old = states.get(p.getUniqueId());
+        if (old != null && old.raw().equals(raw)) {
+            unchanged.inc();
+            return;
+        }
+        String tag = null;
+        if (!raw.equals(placeholder)) {
+            tag = tagFor(parse(raw));
+            changed.inc();
+        } else {
+            unresolved.inc();
+        }
+        states.put(p.getUniqueId(), new State(raw, tag));
+    }
+
+    void forget(UUID id) {
+        states.remove(id);
+    }
+
+    // Empty, "null" or unparsable values count as 0, as the script did
+    private static double parse(String raw) {
+        String s = raw.replace(",", "").trim();
+        if (s.isEmpty() || s.toLowerCase(Locale.ROOT).equals("null")) return 0;
+        try {
+            return Double.parseDouble(s);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.Locale;
+
+// The gamemodes we track; ordinals index the per-mode arrays in TierRecord
+enum Gamemode {
+    AXE, NETHOP, UHC, MACE, SMP, POT, VANILLA, SWORD;
+
+    private static final Gamemode[] VALUES = values();
+
+    private final String id = name().toLowerCase(Locale.ROOT);
+
+    // Lower-case identifier used in commands, placeholders and the upstream APIs
+    String id() { return id; }
+
+    // @return the gamemode with this id (case-insensitive), or null
+    static Gamemode of(String id) {
+        for (Gamemode g : VALUES) if (g.id.equalsIgnoreCase(id)) return g;
+        return null;
+    }
+}
@@ -0,0 +1,113 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Caps how hard we hit one upstream host: at most {@code maxConcurrent} requests in flight,
+ * and request starts spaced evenly at {@code requestsPerSecond}. Callers queue (block) rather
+ * than fail, so a burst of 200 joins turns into a steady, predictable trickle. When the host
+ * says it is rate limiting us (429, Retry-After) every request start is held back until it
+ * allows them again; a caller that would have to wait longer than {@link #MAX_PAUSE_WAIT_MS}
+ * gets a {@link RateLimitedException} at once instead.
+ */
+final class HostLimiter {
+    @FunctionalInterface
+    interface IOCall<T> {
+        T call() throws IOException;
+    }
+
+    // Thrown without a request while the host has asked us to hold off for longer than callers wait
+    static final class RateLimitedException extends IOException {
+        RateLimitedException(String host, long waitMs) {
+            super(host + " is rate limiting requests, retry in " + Math.max(1, waitMs / 1000) + "s");
+        }
+    }
+
+    static final long MAX_PAUSE_WAIT_MS = 2000;
+    // backoff after a 429 without Retry-After: 1s, doubling per 429 in a row, up to this
+    private static final long MAX_BACKOFF_MS = 300_000;
+
+    private final String host;
+    private final int maxConcurrent;
+    private final Semaphore concurrency;
+    private final long intervalNanos;
+    private long nextStart;
+    // no request may start before this (System.nanoTime); guarded by this
+    private long pausedUntil;
+    private int throttledInARow;
+
+    HostLimiter(String host, int maxConcurrent, double requestsPerSecond) {
+        this.host = host;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.concurrency = new Semaphore(this.maxConcurrent, true);
+        this.intervalNanos = requestsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond) : 0L;
+        this.nextStart = System.nanoTime();
+        this.pausedUntil = nextStart;
+    }
+
+    <T> T call(IOCall<T> request) throws IOException {
+        try {
+            concurrency.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for " + host);
+        }
+        try {
+            pace();
+            return request.call();
+        } finally {
+            concurrency.release();
+        }
+    }
+
+    // Reserve the next start slot and sleep until it comes up
+    private void pace() throws IOException {
+        long now = System.nanoTime(), at;
+        synchronized (this) {
+            long paused = pausedUntil - now;
+            if (paused > TimeUnit.MILLISECONDS.toNanos(MAX_PAUSE_WAIT_MS)) {
+                throw new RateLimitedException(host, TimeUnit.NANOSECONDS.toMillis(paused));
+            }
+            if (intervalNanos == 0 && paused <= 0) return;
+            at = Math.max(now, Math.max(nextStart, pausedUntil));
+            nextStart = at + intervalNanos;
+        }
+        long wait = at - now;
+        while (wait > 0) {
+            LockSupport.parkNanos(wait);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted waiting for " + host);
+            }
+            wait = at - System.nanoTime();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Rate limiting signalled by the host
+    // ------------------------------------------------------------------------
+    // The host answered 429; retryAfterMs < 0 when it did not say for how long
+    synchronized void throttled(long retryAfterMs) {
+        throttledInARow++;
+        long ms = retryAfterMs >= 0 ? retryAfterMs : Math.min(MAX_BACKOFF_MS, 1000L << Math.min(throttledInARow - 1, 20));
+        pausedUntil = Math.max(pausedUntil, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ms));
+    }
+
+    // Any other answer: the next 429 starts the backoff from the beginning
+    synchronized void accepted() {
+        throttledInARow = 0;
+    }
+
+    // @return how long request starts are still held back, 0 when they are not
+    synchronized long pausedMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(pausedUntil - System.nanoTime()));
+    }
+
+    String host() { return host; }
+
+    int inFlight() { return maxConcurrent - concurrency.availablePermits(); }
+}
@@ -0,0 +1,283 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Shared HTTP layer for every upstream. One {@link HttpClient} (connection reuse, HTTP/2 where
+ * the server offers it), gzip-encoded responses, per-endpoint timeouts covering the whole
+ * exchange (the body is streamed to the handler and closed if it is still arriving at the
+ * deadline), jittered exponential retries, and a circuit breaker per endpoint so a dead
+ * upstream fails fast instead of tying up worker threads. A 429 (or a 503 with Retry-After) pauses the endpoint's {@link HostLimiter}
+ * for as long as the upstream asks.
+ */
+final class HttpFetcher {
+    private static final String USER_AGENT = "SimpleMCTiers (+https://github.com/Vadlox/SimpleMCTiers)";
+    // longest Retry-After we honour, in seconds
+    private static final long MAX_RETRY_AFTER_S = 3600;
+
+    // Thrown without touching the network while an endpoint's circuit is open
+    static final class CircuitOpenException extends IOException {
+        CircuitOpenException(String endpoint) { super(endpoint + " is unavailable (circuit open)"); }
+    }
+
+    // One upstream: its limiter, breaker and request policy
+    record Endpoint(String name, HostLimiter limiter, CircuitBreaker breaker,
+                    Duration timeout, int maxRetries, long backoffMs) {
+        Endpoint {
+            // from config; every call makes at least one attempt
+            maxRetries = Math.max(0, maxRetries);
+            backoffMs = Math.max(0, backoffMs);
+        }
+    }
+
+    @FunctionalInterface
+    interface BodyHandler<T> {
+        // Called once per call with the first response that is not retried; body is already
+        // gunzipped. What the handler throws is neither retried nor counted against the breaker.
+        T handle(int status, HttpHeaders headers, InputStream body) throws IOException;
+    }
+
+    private final HttpClient client;
+    private final Metrics metrics;
+    // closes bodies that outlive their deadline; its thread exits when idle
+    private final ScheduledThreadPoolExecutor deadlines;
+
+    HttpFetcher(Duration connectTimeout, Metrics metrics) {
+        this.metrics = metrics;
+        this.deadlines = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "SimpleMCTiers-HttpDeadline");
+            t.setDaemon(true);
+            return t;
+        });
+        deadlines.setRemoveOnCancelPolicy(true);
+        deadlines.setKeepAliveTime(30, TimeUnit.SECONDS);
+        deadlines.allowCoreThreadTimeOut(true);
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    String getString(Endpoint ep, String url) throws IOException {
+        return get(ep, url, Map.of(), (status, headers, body) ->
+                status == 200 ? new String(body.readAllBytes(), StandardCharsets.UTF_8) : null);
+    }
+
+    /**
+     * GET {@code url}, retrying transport errors, 429 and 5xx with jittered backoff; only those
+     * count against the breaker. Other statuses (2xx, 3xx, 4xx) are handed to {@code handler} as-is.
+     */
+    <T> T get(Endpoint ep, String url, Map<String,String> headers, BodyHandler<T> handler) throws IOException {
+        if (!ep.breaker().tryAcquire()) {
+            outcome(ep, "circuit_open");
+            throw new CircuitOpenException(ep.name());
+        }
+        long start = System.nanoTime();
+
+        HttpRequest.Builder rb = HttpRequest.newBuilder(URI.create(url))
+                .timeout(ep.timeout())
+                .header("User-Agent", USER_AGENT)
+                .header("Accept-Encoding", "gzip")
+                .GET();
+        headers.forEach(rb::header);
+        HttpRequest request = rb.build();
+
+        IOException last = null;
+        boolean done = false;
+        try {
+            for (int attempt = 0; attempt <= ep.maxRetries(); attempt++) {
+                if (attempt > 0) {
+                    metrics.counter("simplemctiers_upstream_retries_total", "upstream", ep.name()).inc();
+                    backoff(ep, attempt);
+                }
+                HttpResponse<InputStream> resp;
+                long deadline = System.nanoTime() + ep.timeout().toNanos();
+                try {
+                    resp = ep.limiter().call(() -> send(request, deadline));
+                } catch (InterruptedIOException e) {
+                    // shutting down: neither a success nor an upstream failure
+                    throw e;
+                } catch (HostLimiter.RateLimitedException e) {
+                    // held back by an earlier 429: no request was sent, so nothing to retry or count
+                    outcome(ep, "rate_limited");
+                    throw e;
+                } catch (IOException e) {
+                    last = e;
+                    continue;
+                }
+                int status = resp.statusCode();
+                long retryAfter = retryAfterMs(resp.headers());
+                if (status == 429 || (status == 503 && retryAfter >= 0)) {
+                    metrics.counter("simplemctiers_upstream_throttled_total", "upstream", ep.name()).inc();
+                    ep.limiter().throttled(retryAfter);
+                } else {
+                    ep.limiter().accepted();
+                }
+                if (status == 429 || status >= 500) {
+                    resp.body().close();
+                    last = new IOException(ep.name() + " returned HTTP " + status);
+                    continue;
+                }
+
+                TimedBody raw = new TimedBody(resp.body(), deadline, request.uri().getHost(), ep.timeout());
+                try (InputStream body = decode(resp.headers(), raw)) {
+                    T result = handler.handle(status, resp.headers(), body);
+                    ep.breaker().onSuccess();
+                    outcome(ep, "ok");
+                    done = true;
+                    return result;
+                } catch (IOException | RuntimeException e) {
+                    // already closed unless decode() failed before the stream was opened
+                    try { raw.close(); } catch (IOException ignored) {}
+                    // the body broke off or ran past the deadline: a transport failure like any other
+                    if (raw.failed()) {
+                        last = e instanceof IOException io ? io : new IOException(e);
+                        continue;
+                    }
+                    // the host answered: whatever the handler makes of it is not an upstream failure
+                    ep.breaker().onSuccess();
+                    outcome(ep, "rejected");
+                    done = true;
+                    throw e;
+                }
+            }
+            ep.breaker().onFailure();
+            outcome(ep, "error");
+            done = true;
+            throw last;
+        } finally {
+            if (!done) ep.breaker().onAbort();
+            // whole call, retries and backoff included
+            metrics.histogram("simplemctiers_upstream_request_seconds", "upstream", ep.name()).since(start);
+        }
+    }
+
+    private void outcome(Endpoint ep, String outcome) {
+        metrics.counter("simplemctiers_upstream_requests_total", "upstream", ep.name(), "outcome", outcome).inc();
+    }
+
+    // Waits for the headers until the deadline; the body is left to TimedBody
+    private HttpResponse<InputStream> send(HttpRequest request, long deadline) throws IOException {
+        CompletableFuture<HttpResponse<InputStream>> response = client.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        try {
+            return response.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            response.cancel(true);
+            throw new HttpTimeoutException(request.uri().getHost() + " did not answer in time");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IOException(e.getCause());
+        } catch (InterruptedException e) {
+            response.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during " + request.uri().getHost() + " request");
+        }
+    }
+
+    // Retry-After in milliseconds from now (delta-seconds or an HTTP date), -1 when absent or unreadable
+    static long retryAfterMs(HttpHeaders headers) {
+        String v = headers.firstValue("Retry-After").orElse(null);
+        if (v == null) return -1;
+        v = v.trim();
+        try {
+            return Math.min(MAX_RETRY_AFTER_S, Math.max(0, Long.parseLong(v))) * 1000L;
+        } catch (NumberFormatException ignored) {}
+        try {
+            long ms = ZonedDateTime.parse(v, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli()
+                    - System.currentTimeMillis();
+            return Math.min(MAX_RETRY_AFTER_S * 1000L, Math.max(0, ms));
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private static InputStream decode(HttpHeaders headers, InputStream raw) throws IOException {
+        String enc = headers.firstValue("Content-Encoding").orElse("");
+        return enc.equalsIgnoreCase("gzip") ? new GZIPInputStream(raw, 8192) : raw;
+    }
+
+    // A response body read under the exchange deadline: a timer closes it if it is still open
+    // then, which fails a read that is waiting on a slow upstream. Remembers whether reading
+    // failed, so the caller can tell a broken transfer from a handler that rejected the body.
+    private final class TimedBody extends FilterInputStream {
+        private final ScheduledFuture<?> timer;
+        private final String host;
+        private final Duration timeout;
+        private volatile boolean expired;
+        private volatile boolean failed;
+
+        TimedBody(InputStream in, long deadline, String host, Duration timeout) {
+            super(in);
+            this.host = host;
+            this.timeout = timeout;
+            this.timer = deadlines.schedule(this::expire, Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+
+        private void expire() {
+            expired = true;
+            try { in.close(); } catch (IOException ignored) {}
+        }
+
+        boolean failed() {
+            return failed;
+        }
+
+        @Override
+        public int read() throws IOException {
+            try { return super.read(); }
+            catch (IOException e) { throw broken(e); }
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            try { return super.read(b, off, len); }
+            catch (IOException e) { throw broken(e); }
+        }
+
+        private IOException broken(IOException e) {
+            failed = true;
+            return expired ? new HttpTimeoutException(host + " did not finish sending within " + timeout.toMillis() + "ms") : e;
+        }
+
+        @Override
+        public void close() throws IOException {
+            timer.cancel(false);
+            super.close();
+        }
+    }
+
+    // Full jitter: sleep a random time in [0, backoff * 2^(attempt-1)]
+    private static void backoff(Endpoint ep, int attempt) throws InterruptedIOException {
+        long cap = ep.backoffMs() << Math.min(attempt - 1, 10);
+        try {
+            TimeUnit.MILLISECONDS.sleep(ThreadLocalRandom.current().nextLong(cap + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted during backoff for " + ep.name());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package vadlox.dev.simpleMCTiers;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Name <-> UUID resolution backed by a cache that survives restarts via the warm-start snapshot.
+ * Joining players are recorded straight from their Player UUID, so online-mode joins never
+ * need Mojang; only names we have never seen (or whose entry expired) are looked up. Both
+ * directions are LRU {@link TierCache}s of at most {@code maxSize} names, and {@link #prune}
+ * drops what has expired.
+ */
+final class IdentityResolver {
+    record Identity(UUID uuid, String name) {}
+
+    private final String mojangUrl;
+    private final HttpFetcher http;
+    private final HttpFetcher.Endpoint endpoint;
+    private final long ttlMs;
+    private final Metrics.Counter hits;
+    private final Metrics.Counter misses;
+    private final Metrics.Counter errors;
+
+    // canonical name -> identity; negative entries (uuid == null) mark names Mojang does not know
+    private final TierCache<Identity> byName;
+    // uuid -> name as resolved
+    private final TierCache<String> byUuid;
+
+    IdentityResolver(String mojangUrl, HttpFetcher http, HttpFetcher.Endpoint endpoint,
+                     int maxSize, long ttlMs, long negativeTtlMs, Metrics metrics) {
+        this.mojangUrl = mojangUrl;
+        this.http = http;
+        this.endpoint = endpoint;
+        this.ttlMs = ttlMs;
+        this.byName = new TierCache<>(maxSize, ttlMs, ttlMs, negativeTtlMs);
+        this.byUuid = new TierCache<>(maxSize, ttlMs, ttlMs, negativeTtlMs);
+        this.hits   = metrics.counter("simplemctiers_lookups_total", "source", "mojang", "result", "hit");
+        this.misses = metrics.counter("simplemctiers_lookups_total", "source", "mojang", "result", "miss");
+        this.errors = metrics.counter("simplemctiers_lookups_total", "source", "mojang", "result", "error");
+        metrics.gauge("simplemctiers_cache_entries", this::size, "cache", "identities");
+    }
+
+    // Canonical cache / override key for a player name
+    static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    // ------------------------------------------------------------------------
+    // Lookups
+    // ------------------------------------------------------------------------
+    // Record a name seen on this server. Only Mojang-issued (version 4) UUIDs are trusted;
+    // offline-mode UUIDs are derived from the name and say nothing about the account.
+    void remember(UUID uuid, String name) {
+        if (uuid.version() != 4) return;
+        put(new Identity(uuid, name), System.currentTimeMillis());
+    }
+
+    // @return the cached identity without any I/O, or null if unknown / expired
+    Identity cached(String name) {
+        Identity id = byName.getIfPresent(key(name));
+        return id != null && id.uuid() != null ? id : null;
+    }
+
+    String nameOf(UUID uuid) {
+        return byUuid.getIfPresent(uuid.toString());
+    }
+
+    /**
+     * Resolve a name, asking Mojang only on a cache miss.
+     * @return the identity, or null when the name is not a premium account
+     */
+    Identity resolve(String name) throws IOException {
+        TierCache.Entry<Identity> e = byName.getEntry(key(name));
+        if (e != null) {
+            hits.inc();
+            return e.negative() ? null : e.value();
+        }
+
+        misses.inc();
+        Identity id;
+        try {
+            id = fetch(name);
+        } catch (IOException ex) {
+            errors.inc();
+            throw ex;
+        }
+        if (id == null) byName.putNegative(key(name), new Identity(null, name));
+        else put(id, System.currentTimeMillis());
+        return id;
+    }
+
+    // Drop expired and negative entries past their TTL; run from the maintenance thread
+    void prune() {
+        byName.removeExpired();
+        byUuid.removeExpired();
+    }
+
+    private synchronized void put(Identity id, long resolvedAt) {
+        String uuidKey = id.uuid().toString();
+        // a rename frees the account's previous name
+        TierCache.Entry<String> oldName = byUuid.getStale(uuidKey);
+        if (oldName != null && !key(oldName.value()).equals(key(id.name()))) byName.invalidate(key(oldName.value()));
+        // the name may have belonged to another account before
+        TierCache.Entry<Identity> old = byName.getStale(key(id.name()));
+        if (old != null && old.value().uuid() != null && !old.value().uuid().equals(id.uuid())) {
+            String oldKey = old.value().uuid().toString();
+            TierCache.Entry<String> other = byUuid.getStale(oldKey);
+            if (other != null && key(other.value()).equals(key(id.name()))) byUuid.invalidate(oldKey);
+        }
+        byUuid.put(uuidKey, id.name(), resolvedAt);
+        byName.put(key(id.name()), id, resolvedAt);
+    }
+
+    private Identity fetch(String name) throws IOException {
+        return http.get(endpoint, mojangUrl + name, Map.of(), (status, headers, body) -> {
+            if (status == 204 || status == 404) return null;
+            if (status != 200) throw new IOException("Mojang returned HTTP " + status);
+            try {
+                JsonObject json = JsonParser.parseString(new String(body.readAllBytes(), StandardCharsets.UTF_8)).getAsJsonObject();
+                if (!json.has("id") || !json.has("name")) return null;
+                return new Identity(parseUndashed(json.get("id").getAsString()), json.get("name").getAsString());
+            } catch (RuntimeException e) {
+                // not the JSON object we expect
+                return null;
+            }
+        });
+    }
+
+    private static UUID parseUndashed(String hex) {
+        return new UUID(Long.parseUnsignedLong(hex.substring(0, 16), 16), Long.parseUnsignedLong(hex.substring(16, 32), 16));
+    }
+
+    // ------------------------------------------------------------------------
+    // Persistence (the warm-start snapshot, see SnapshotStore)
+    // ------------------------------------------------------------------------
+    record Known(Identity identity, long resolvedAt) {}
+
+    // Every known premium name, with the time it was resolved
+    List<Known> known() {
+        List<Known> out = new ArrayList<>(byName.size());
+        for (Map.Entry<String, TierCache.Entry<Identity>> e : byName.entries()) {
+            TierCache.Entry<Identity> v = e.getValue();
+            if (!v.negative() && !byName.expired(v)) out.add(new Known(v.value(), v.writtenAt()));
+        }
+        return out;
+    }
+
+    // Re-add a mapping with its original resolve time, so it still expires on schedule
+    void restore(Identity id, long resolvedAt) {
+        TierCache.Entry<Identity> cur = byName.getStale(key(id.name()));
+        if (cur != null && cur.writtenAt() >= resolvedAt) return;
+        if (System.currentTimeMillis() - resolvedAt < ttlMs) put(id, resolvedAt);
+    }
+
+    int size() {
+        return byUuid.size();
+    }
+}
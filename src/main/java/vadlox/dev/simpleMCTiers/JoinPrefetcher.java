@@ -0,0 +1,60 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Warms the caches for players who are logging in, before their first placeholder render.
+ * Names are queued (deduplicated) and worked off by a small fixed pool; the per-host
+ * {@link HostLimiter}s decide how fast the upstreams actually see them.
+ */
+final class JoinPrefetcher {
+    private final Consumer<String> prefetch;
+    private final Logger logger;
+    private final ExecutorService pool;
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    JoinPrefetcher(Consumer<String> prefetch, int threads, Logger logger) {
+        this.prefetch = prefetch;
+        this.logger = logger;
+        AtomicInteger n = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "SimpleMCTiers-Prefetch-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    void submit(String name) {
+        String key = IdentityResolver.key(name);
+        if (!queued.add(key)) return;
+        try {
+            pool.execute(() -> {
+                try {
+                    prefetch.accept(name);
+                } catch (RuntimeException e) {
+                    logger.log(Level.FINE, "Prefetch failed for " + name, e);
+                } finally {
+                    queued.remove(key);
+                }
+            });
+        } catch (RuntimeException e) {
+            // pool shut down
+            queued.remove(key);
+        }
+    }
+
+    int queued() {
+        return queued.size();
+    }
+
+    void shutdown() {
+        pool.shutdownNow();
+    }
+}
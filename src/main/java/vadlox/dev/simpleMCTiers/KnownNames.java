@@ -0,0 +1,39 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Every player name worth suggesting in tab completion, online or not: players on the
+ * VanillaList, with a mctiers.com profile or with overrides (fed by the {@link Leaderboard}),
+ * and players seen joining. Kept sorted by canonical name, so a prefix is a range scan
+ * that stops after the first few results. Names are only added; thread-safe.
+ */
+final class KnownNames {
+    // canonical name -> name as displayed
+    private final ConcurrentSkipListMap<String, String> byKey = new ConcurrentSkipListMap<>();
+
+    // A lower-case spelling (VanillaList keys) never replaces a properly cased one
+    void add(String name) {
+        if (name == null || name.isEmpty()) return;
+        String key = IdentityResolver.key(name);
+        byKey.merge(key, name, (cur, next) -> next.equals(key) ? cur : next);
+    }
+
+    // @return up to limit names starting with prefix (case-insensitive), alphabetically
+    List<String> startingWith(String prefix, int limit) {
+        String low = IdentityResolver.key(prefix);
+        List<String> out = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, String> e : byKey.tailMap(low, true).entrySet()) {
+            if (out.size() >= limit || !e.getKey().startsWith(low)) break;
+            out.add(e.getValue());
+        }
+        return out;
+    }
+
+    int size() {
+        return byKey.size();
+    }
+}
@@ -0,0 +1,186 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Per-gamemode ranking of every player we know a tier for, using the same precedence as a
+ * tier render: override, then mctiers.com, then VanillaList. Each mode is an immutable
+ * sorted array swapped in on change, so positions and pages are binary searches with no
+ * locking; writers patch single players and only rebuild everything when the VanillaList
+ * page is swapped. Every player it comes across with a profile, a listing or overrides is
+ * also added to the {@link KnownNames} used for tab completion.
+ */
+final class Leaderboard {
+    // score = tier * 2 + (LT ? 1 : 0); lower is better, HT1 = 2
+    record Entry(String key, String name, int score) {
+        String tierCode() {
+            return (score % 2 == 0 ? "HT" : "LT") + score / 2;
+        }
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingInt(Entry::score).thenComparing(Entry::key);
+    private static final Gamemode[] MODES = Gamemode.values();
+
+    private record Board(Entry[] sorted, Map<String, Entry> byKey) {
+        static final Board EMPTY = new Board(new Entry[0], Map.of());
+    }
+
+    private final TierCache<TierRecord> cache;
+    private final OverrideStore overrides;
+    private final Supplier<VanillaListIndex> vanillaList;
+    private final IdentityResolver identities;
+    private final KnownNames names;
+    private final Board[] boards = new Board[MODES.length];
+
+    Leaderboard(TierCache<TierRecord> cache, OverrideStore overrides,
+                Supplier<VanillaListIndex> vanillaList, IdentityResolver identities, KnownNames names) {
+        this.cache = cache;
+        this.overrides = overrides;
+        this.vanillaList = vanillaList;
+        this.identities = identities;
+        this.names = names;
+        Arrays.fill(boards, Board.EMPTY);
+    }
+
+    // ------------------------------------------------------------------------
+    // Reads (lock-free)
+    // ------------------------------------------------------------------------
+    // @return the player's 1-based position in the mode, or null when unranked
+    Integer position(String playerName, Gamemode mode) {
+        Board b = boards[mode.ordinal()];
+        Entry e = b.byKey().get(IdentityResolver.key(playerName));
+        if (e == null) return null;
+        int i = Arrays.binarySearch(b.sorted(), e, ORDER);
+        return i >= 0 ? i + 1 : null;
+    }
+
+    // @param page 1-based
+    List<Entry> page(Gamemode mode, int page, int pageSize) {
+        Entry[] sorted = boards[mode.ordinal()].sorted();
+        int from = Math.max(0, (page - 1) * pageSize);
+        if (from >= sorted.length) return List.of();
+        return List.of(Arrays.copyOfRange(sorted, from, Math.min(sorted.length, from + pageSize)));
+    }
+
+    int size(Gamemode mode) {
+        return boards[mode.ordinal()].sorted().length;
+    }
+
+    // ------------------------------------------------------------------------
+    // Writes
+    // ------------------------------------------------------------------------
+    // Re-rank one player in every mode (record stored, override edited)
+    synchronized void update(String playerName) {
+        String key = IdentityResolver.key(playerName);
+        TierRecord rec = record(key);
+        VanillaListIndex vnl = vanillaList.get();
+        String name = displayName(key, rec);
+        boolean ranked = false;
+        for (Gamemode g : MODES) {
+            Board b = boards[g.ordinal()];
+            Entry old = b.byKey().get(key);
+            int score = score(key, g, rec, vnl);
+            ranked |= score > 0;
+            Entry fresh = score > 0 ? new Entry(key, name, score) : null;
+            if (old == null ? fresh == null : old.equals(fresh)) continue;
+            boards[g.ordinal()] = patch(b, old, fresh);
+        }
+        if (known(key, rec, ranked)) names.add(name);
+    }
+
+    // Rank everyone again from the cache, overrides and the current VanillaList index
+    synchronized void rebuild() {
+        VanillaListIndex vnl = vanillaList.get();
+        Set<String> keys = new HashSet<>(vnl.names());
+        for (Map.Entry<String, TierCache.Entry<TierRecord>> e : cache.entries()) keys.add(e.getKey());
+        keys.addAll(overrides.usernames());
+
+        List<List<Entry>> lists = new ArrayList<>(MODES.length);
+        for (int i = 0; i < MODES.length; i++) lists.add(new ArrayList<>());
+        for (String key : keys) {
+            TierRecord rec = record(key);
+            String name = displayName(key, rec);
+            boolean ranked = false;
+            for (Gamemode g : MODES) {
+                int score = score(key, g, rec, vnl);
+                if (score > 0) lists.get(g.ordinal()).add(new Entry(key, name, score));
+                ranked |= score > 0;
+            }
+            if (known(key, rec, ranked)) names.add(name);
+        }
+        for (Gamemode g : MODES) {
+            Entry[] sorted = lists.get(g.ordinal()).toArray(new Entry[0]);
+            Arrays.sort(sorted, ORDER);
+            Map<String, Entry> byKey = new HashMap<>(sorted.length * 2);
+            for (Entry e : sorted) byKey.put(e.key(), e);
+            boards[g.ordinal()] = new Board(sorted, byKey);
+        }
+    }
+
+    private static Board patch(Board b, Entry remove, Entry add) {
+        Entry[] cur = b.sorted();
+        int n = cur.length;
+        Entry[] next;
+        if (remove != null) {
+            int i = Arrays.binarySearch(cur, remove, ORDER);
+            next = new Entry[n - 1];
+            System.arraycopy(cur, 0, next, 0, i);
+            System.arraycopy(cur, i + 1, next, i, n - i - 1);
+            cur = next;
+            n--;
+        }
+        if (add != null) {
+            int at = -Arrays.binarySearch(cur, add, ORDER) - 1;
+            next = new Entry[n + 1];
+            System.arraycopy(cur, 0, next, 0, at);
+            next[at] = add;
+            System.arraycopy(cur, at, next, at + 1, n - at);
+            cur = next;
+        }
+        Map<String, Entry> byKey = new HashMap<>(b.byKey());
+        if (add != null) byKey.put(add.key(), add);
+        else byKey.remove(remove.key());
+        return new Board(cur, byKey);
+    }
+
+    // ------------------------------------------------------------------------
+    // Scoring
+    // ------------------------------------------------------------------------
+    private TierRecord record(String key) {
+        TierCache.Entry<TierRecord> e = cache.getStale(key);
+        return e != null && !e.negative() ? e.value() : null;
+    }
+
+    // Not just a name someone looked up that turned out not to exist
+    private boolean known(String key, TierRecord rec, boolean ranked) {
+        return rec != null || ranked || overrides.get(key, null) != null;
+    }
+
+    private String displayName(String key, TierRecord rec) {
+        if (rec != null) return rec.name();
+        IdentityResolver.Identity id = identities.cached(key);
+        return id != null ? id.name() : key;
+    }
+
+    // @return the ranking score, or 0 when the player has no tier in the mode
+    private int score(String key, Gamemode g, TierRecord rec, VanillaListIndex vnl) {
+        Integer o = overrides.tier(key, g.id());
+        if (o != null && o > 0) return o * 2;
+        if (rec != null && rec.ranked(g)) return rec.tier(g) * 2 + (rec.pos(g) == 0 ? 0 : 1);
+        String code = vnl.get(key, g.id());
+        if (code == null) return 0;
+        try {
+            return Integer.parseInt(code.substring(2)) * 2 + (code.charAt(0) == 'L' ? 1 : 0);
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process counters, latency histograms and gauges. Hot paths look their series up once
+ * and keep the handle, so recording is a couple of {@link LongAdder} increments with no
+ * allocation. Rendered as Prometheus text for the optional HTTP endpoint.
+ */
+final class Metrics {
+    // One metric name plus its rendered label set, e.g. source="mctiers",result="hit"
+    private record Series(String name, String labels) {
+        String id() {
+            return labels.isEmpty() ? name : name + "{" + labels + "}";
+        }
+    }
+
+    static final class Counter {
+        private final LongAdder count = new LongAdder();
+
+        void inc() { count.increment(); }
+        void inc(long n) { count.add(n); }
+        long get() { return count.sum(); }
+    }
+
+    // Seconds; the ranges the upstreams and snapshot builds actually land in
+    private static final double[] BOUNDS = {
+            0.00001, 0.0001, 0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+    private static final String[] LE = Arrays.stream(BOUNDS).mapToObj(b -> BigDecimal.valueOf(b).toPlainString()).toArray(String[]::new);
+
+    static final class Histogram {
+        private final LongAdder[] buckets = new LongAdder[BOUNDS.length + 1];
+        private final LongAdder sumNanos = new LongAdder();
+
+        private Histogram() {
+            for (int i = 0; i < buckets.length; i++) buckets[i] = new LongAdder();
+        }
+
+        void recordNanos(long nanos) {
+            double s = nanos / 1e9;
+            int i = 0;
+            while (i < BOUNDS.length && s > BOUNDS[i]) i++;
+            buckets[i].increment();
+            sumNanos.add(nanos);
+        }
+
+        // Time since a System.nanoTime() taken before the work
+        void since(long startNanos) {
+            recordNanos(System.nanoTime() - startNanos);
+        }
+
+        long count() {
+            long n = 0;
+            for (LongAdder b : buckets) n += b.sum();
+            return n;
+        }
+
+        // @return upper bound (seconds) of the bucket holding quantile q; +Inf past the last bound
+        double quantile(double q) {
+            long[] c = new long[buckets.length];
+            long total = 0;
+            for (int i = 0; i < c.length; i++) total += (c[i] = buckets[i].sum());
+            if (total == 0) return 0;
+            long rank = (long) Math.ceil(q * total), seen = 0;
+            for (int i = 0; i < BOUNDS.length; i++) {
+                seen += c[i];
+                if (seen >= rank) return BOUNDS[i];
+            }
+            return Double.POSITIVE_INFINITY;
+        }
+
+        double meanSeconds() {
+            long n = count();
+            return n == 0 ? 0 : sumNanos.sum() / 1e9 / n;
+        }
+    }
+
+    private final ConcurrentHashMap<Series, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Series, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Series, LongSupplier> gauges = new ConcurrentHashMap<>();
+
+    // ------------------------------------------------------------------------
+    // Registration (labels are name/value pairs)
+    // ------------------------------------------------------------------------
+    Counter counter(String name, String... labels) {
+        return counters.computeIfAbsent(series(name, labels), s -> new Counter());
+    }
+
+    Histogram histogram(String name, String... labels) {
+        return histograms.computeIfAbsent(series(name, labels), s -> new Histogram());
+    }
+
+    void gauge(String name, LongSupplier value, String... labels) {
+        gauges.put(series(name, labels), value);
+    }
+
+    private static Series series(String name, String[] labels) {
+        if (labels.length % 2 != 0) throw new IllegalArgumentException("Labels must be name/value pairs");
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) sb.append(',');
+            sb.append(labels[i]).append("=\"").append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"")).append('"');
+        }
+        return new Series(name, sb.toString());
+    }
+
+    // ------------------------------------------------------------------------
+    // Reading
+    // ------------------------------------------------------------------------
+    // Human-readable lines for /simplemctiers stats, grouped by metric name
+    List<String> summary() {
+        List<String> out = new ArrayList<>();
+        for (Map.Entry<Series, LongSupplier> e : sorted(gauges)) {
+            out.add(e.getKey().id() + " = " + e.getValue().getAsLong());
+        }
+        for (Map.Entry<Series, Counter> e : sorted(counters)) {
+            out.add(e.getKey().id() + " = " + e.getValue().get());
+        }
+        for (Map.Entry<Series, Histogram> e : sorted(histograms)) {
+            Histogram h = e.getValue();
+            if (h.count() == 0) continue;
+            out.add(String.format(Locale.ROOT, "%s n=%d mean=%s p50<=%s p99<=%s", e.getKey().id(), h.count(),
+                    millis(h.meanSeconds()), millis(h.quantile(0.5)), millis(h.quantile(0.99))));
+        }
+        return out;
+    }
+
+    void writePrometheus(StringBuilder out) {
+        String last = null;
+        for (Map.Entry<Series, LongSupplier> e : sorted(gauges)) {
+            last = type(out, last, e.getKey().name(), "gauge");
+            out.append(e.getKey().id()).append(' ').append(e.getValue().getAsLong()).append('\n');
+        }
+        for (Map.Entry<Series, Counter> e : sorted(counters)) {
+            last = type(out, last, e.getKey().name(), "counter");
+            out.append(e.getKey().id()).append(' ').append(e.getValue().get()).append('\n');
+        }
+        for (Map.Entry<Series, Histogram> e : sorted(histograms)) {
+            Series s = e.getKey();
+            Histogram h = e.getValue();
+            last = type(out, last, s.name(), "histogram");
+            String sep = s.labels().isEmpty() ? "" : s.labels() + ",";
+            long cumulative = 0;
+            for (int i = 0; i < BOUNDS.length; i++) {
+                cumulative += h.buckets[i].sum();
+                out.append(s.name()).append("_bucket{").append(sep).append("le=\"").append(LE[i]).append("\"} ")
+                        .append(cumulative).append('\n');
+            }
+            cumulative += h.buckets[BOUNDS.length].sum();
+            out.append(s.name()).append("_bucket{").append(sep).append("le=\"+Inf\"} ").append(cumulative).append('\n');
+            String labels = s.labels().isEmpty() ? "" : "{" + s.labels() + "}";
+            out.append(s.name()).append("_sum").append(labels).append(' ').append(h.sumNanos.sum() / 1e9).append('\n');
+            out.append(s.name()).append("_count").append(labels).append(' ').append(cumulative).append('\n');
+        }
+    }
+
+    private static String type(StringBuilder out, String last, String name, String type) {
+        if (!name.equals(last)) out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        return name;
+    }
+
+    private static <V> List<Map.Entry<Series, V>> sorted(Map<Series, V> map) {
+        List<Map.Entry<Series, V>> list = new ArrayList<>(map.entrySet());
+        list.sort(Comparator.comparing((Map.Entry<Series, V> e) -> e.getKey().name()).thenComparing(e -> e.getKey().labels()));
+        return list;
+    }
+
+    private static String millis(double seconds) {
+        if (Double.isInfinite(seconds)) return "+Inf";
+        return String.format(Locale.ROOT, "%.2fms", seconds * 1000);
+    }
+}
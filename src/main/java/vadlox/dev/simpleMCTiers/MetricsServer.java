@@ -0,0 +1,48 @@
+package vadlox.dev.simpleMCTiers;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves {@link Metrics} in the Prometheus text format on /metrics. Off by default and
+ * bound to loopback unless configured otherwise; one daemon thread handles scrapes.
+ */
+final class MetricsServer {
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    MetricsServer(Metrics metrics, String host, int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.createContext("/metrics", ex -> {
+            try (ex) {
+                if (!ex.getRequestMethod().equals("GET")) {
+                    ex.sendResponseHeaders(405, -1);
+                    return;
+                }
+                StringBuilder sb = new StringBuilder(4096);
+                metrics.writePrometheus(sb);
+                byte[] body = sb.toString().getBytes(StandardCharsets.UTF_8);
+                ex.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                ex.sendResponseHeaders(200, body.length);
+                try (OutputStream out = ex.getResponseBody()) { out.write(body); }
+            }
+        });
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "SimpleMCTiers-Metrics");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    void shutdown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
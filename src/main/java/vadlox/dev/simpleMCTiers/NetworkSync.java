@@ -0,0 +1,129 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Follows the change log that every server sharing the database appends to: override edits
+ * made elsewhere are read back into the {@link OverrideStore}, and profiles fetched elsewhere
+ * replace the copies this server holds. {@link #poll} runs on the maintenance thread only.
+ */
+final class NetworkSync {
+    // ids committed out of order (MySQL hands them out before commit) are caught by re-reading
+    // this many ids behind the newest one seen
+    private static final int OVERLAP = 256;
+    private static final long KEEP_MS = TimeUnit.HOURS.toMillis(1);
+    private static final long PRUNE_EVERY_MS = TimeUnit.MINUTES.toMillis(5);
+
+    private record Change(long id, String kind, String name, String origin) {}
+
+    private final OverrideDatabase database;
+    private final OverrideStore overrides;
+    private final Logger logger;
+    private final Metrics.Counter overrideChanges;
+    private final Metrics.Counter tierChanges;
+
+    // told about a profile another server fetched, by canonical name
+    private volatile Consumer<String> onTier = name -> {};
+    // told about override rows reloaded for a name (OverrideStore.ALL: every row)
+    private volatile Consumer<String> onOverrides = name -> {};
+
+    private long newest;
+    private final TreeSet<Long> seen = new TreeSet<>();
+    // override changes not applied yet because a local write for the player was still queued
+    private final Set<String> retry = new LinkedHashSet<>();
+    private long lastPrune = System.currentTimeMillis();
+
+    NetworkSync(OverrideDatabase database, OverrideStore overrides, Logger logger, Metrics metrics) {
+        this.database = database;
+        this.overrides = overrides;
+        this.logger = logger;
+        this.overrideChanges = metrics.counter("simplemctiers_network_changes_total", "kind", "override");
+        this.tierChanges     = metrics.counter("simplemctiers_network_changes_total", "kind", "tier");
+        metrics.gauge("simplemctiers_network_retry_pending", () -> retry.size());
+    }
+
+    void onTier(Consumer<String> listener) {
+        this.onTier = listener;
+    }
+
+    void onOverrides(Consumer<String> listener) {
+        this.onOverrides = listener;
+    }
+
+    // Skip what is already in the log; call before the overrides are loaded
+    void start() throws SQLException {
+        newest = database.read(h -> {
+            try (ResultSet rs = h.statement("SELECT COALESCE(MAX(id), 0) FROM changes").executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        });
+    }
+
+    void poll() {
+        try {
+            for (Change c : changes()) {
+                if (!seen.add(c.id())) continue;
+                newest = Math.max(newest, c.id());
+                if (c.origin().equals(database.origin())) continue;
+                switch (c.kind()) {
+                    case "override" -> {
+                        overrideChanges.inc();
+                        retry.add(c.name());
+                    }
+                    case "tier" -> {
+                        tierChanges.inc();
+                        onTier.accept(c.name());
+                    }
+                    default -> {}
+                }
+            }
+            seen.headSet(newest - OVERLAP, true).clear();
+            for (Iterator<String> it = retry.iterator(); it.hasNext(); ) {
+                String name = it.next();
+                if (!overrides.reload(name)) continue;
+                it.remove();
+                onOverrides.accept(name);
+            }
+            long now = System.currentTimeMillis();
+            if (now - lastPrune >= PRUNE_EVERY_MS) {
+                lastPrune = now;
+                prune(now);
+            }
+        } catch (SQLException | RuntimeException e) {
+            logger.log(Level.WARNING, "Could not read other servers' changes: " + e.getMessage());
+        }
+    }
+
+    private List<Change> changes() throws SQLException {
+        return database.read(h -> {
+            PreparedStatement ps = h.statement("SELECT id, kind, name, origin FROM changes WHERE id>? ORDER BY id");
+            ps.setLong(1, Math.max(0, newest - OVERLAP));
+            List<Change> out = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(new Change(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4)));
+            }
+            return out;
+        });
+    }
+
+    // Any server may prune; the log only has to outlive the slowest poll
+    private void prune(long now) throws SQLException {
+        database.write(h -> {
+            PreparedStatement ps = h.statement("DELETE FROM changes WHERE changed_at<?");
+            ps.setLong(1, now - KEEP_MS);
+            return ps.executeUpdate();
+        });
+    }
+}
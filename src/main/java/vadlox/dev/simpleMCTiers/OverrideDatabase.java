@@ -0,0 +1,203 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * The plugin's SQL database: the overrides table, plus the shared tier cache and change log
+ * used when several servers share one database (see {@link NetworkSync}). Either a local
+ * SQLite file (WAL journal) or a MySQL / MariaDB server. One writer connection guarded by a
+ * lock and a small pool of read connections; each connection caches its prepared statements.
+ */
+final class OverrideDatabase implements AutoCloseable {
+    @FunctionalInterface
+    interface SqlWork<T> {
+        T run(Handle h) throws SQLException;
+    }
+
+    @FunctionalInterface
+    private interface Opener {
+        Connection open() throws SQLException;
+    }
+
+    // A pooled connection plus its prepared statement cache; only used by one thread at a time
+    static final class Handle {
+        private Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+        private long lastUsed = System.nanoTime();
+
+        private Handle(Connection connection) { this.connection = connection; }
+
+        Connection connection() { return connection; }
+
+        PreparedStatement statement(String sql) throws SQLException {
+            PreparedStatement ps = statements.get(sql);
+            if (ps == null) {
+                ps = connection.prepareStatement(sql);
+                statements.put(sql, ps);
+            } else {
+                ps.clearParameters();
+            }
+            return ps;
+        }
+
+        private void close() {
+            for (PreparedStatement ps : statements.values()) try { ps.close(); } catch (SQLException ignored) {}
+            statements.clear();
+            try { connection.close(); } catch (SQLException ignored) {}
+        }
+    }
+
+    // a networked connection idle this long is checked (and reopened) before use
+    private static final long IDLE_CHECK_NANOS = 30_000_000_000L;
+
+    private final SqlDialect dialect;
+    private final Opener opener;
+    // this server's name in the change log; null when no other server shares the database
+    private final String origin;
+    private final Handle writer;
+    private final BlockingQueue<Handle> readers;
+    private final List<Handle> all = new ArrayList<>();
+
+    // overrides.db-style local file; the read connections are query-only
+    static OverrideDatabase sqlite(File file, int readConnections, int busyTimeoutMs, String synchronous,
+                                   String origin) throws SQLException {
+        if (!List.of("OFF", "NORMAL", "FULL", "EXTRA").contains(synchronous)) {
+            throw new SQLException("Invalid synchronous mode: " + synchronous);
+        }
+        String url = "jdbc:sqlite:" + file.getAbsolutePath();
+        return new OverrideDatabase(SqlDialect.SQLITE, () -> {
+            Connection c = DriverManager.getConnection(url);
+            try (Statement st = c.createStatement()) {
+                st.execute("PRAGMA busy_timeout=" + Math.max(0, busyTimeoutMs));
+                st.execute("PRAGMA synchronous=" + synchronous);
+                st.execute("PRAGMA journal_mode=WAL");
+            }
+            return c;
+        }, readConnections, origin);
+    }
+
+    // A MySQL / MariaDB server, through the MySQL driver the server ships with
+    static OverrideDatabase mysql(String url, String user, String password, int readConnections,
+                                  String origin) throws SQLException {
+        if (!url.startsWith("jdbc:mysql:")) throw new SQLException("database.mysql.url must start with jdbc:mysql:");
+        return new OverrideDatabase(SqlDialect.MYSQL, () -> DriverManager.getConnection(url, user, password),
+                readConnections, origin);
+    }
+
+    private OverrideDatabase(SqlDialect dialect, Opener opener, int readConnections, String origin) throws SQLException {
+        this.dialect = dialect;
+        this.opener = opener;
+        this.origin = origin;
+        writer = open();
+        try (Statement st = writer.connection().createStatement()) {
+            for (String sql : dialect.schema) st.executeUpdate(sql);
+        }
+        int n = Math.max(1, readConnections);
+        readers = new ArrayBlockingQueue<>(n);
+        for (int i = 0; i < n; i++) {
+            Handle h = open();
+            if (dialect == SqlDialect.SQLITE) {
+                try (Statement st = h.connection().createStatement()) { st.execute("PRAGMA query_only=ON"); }
+            }
+            readers.add(h);
+        }
+    }
+
+    private Handle open() throws SQLException {
+        Handle h = new Handle(opener.open());
+        all.add(h);
+        return h;
+    }
+
+    SqlDialect dialect() {
+        return dialect;
+    }
+
+    // ------------------------------------------------------------------------
+    // Access
+    // ------------------------------------------------------------------------
+    <T> T read(SqlWork<T> work) throws SQLException {
+        Handle h;
+        try {
+            h = readers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a read connection", e);
+        }
+        try {
+            revive(h);
+            return work.run(h);
+        } finally {
+            readers.add(h);
+        }
+    }
+
+    // Runs work on the writer connection inside a single transaction
+    <T> T write(SqlWork<T> work) throws SQLException {
+        synchronized (writer) {
+            revive(writer);
+            Connection c = writer.connection();
+            c.setAutoCommit(false);
+            try {
+                T result = work.run(writer);
+                c.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                try { c.rollback(); } catch (SQLException ignored) {}
+                throw e;
+            } finally {
+                try { c.setAutoCommit(true); } catch (SQLException ignored) {}
+            }
+        }
+    }
+
+    // A database server drops idle connections; reconnect instead of failing the next query
+    private void revive(Handle h) throws SQLException {
+        long now = System.nanoTime();
+        boolean idle = now - h.lastUsed > IDLE_CHECK_NANOS;
+        h.lastUsed = now;
+        if (dialect == SqlDialect.SQLITE || !idle || h.connection.isValid(2)) return;
+        h.close();
+        h.connection = opener.open();
+    }
+
+    // ------------------------------------------------------------------------
+    // Change log (network sync)
+    // ------------------------------------------------------------------------
+    boolean shared() {
+        return origin != null;
+    }
+
+    String origin() {
+        return origin;
+    }
+
+    // Records a change for the other servers, in the caller's write transaction
+    void logChange(Handle h, String kind, String name) throws SQLException {
+        if (origin == null) return;
+        PreparedStatement ps = h.statement("INSERT INTO changes(kind, name, origin, changed_at) VALUES(?,?,?,?)");
+        ps.setString(1, kind);
+        ps.setString(2, name);
+        ps.setString(3, origin);
+        ps.setLong(4, System.currentTimeMillis());
+        ps.executeUpdate();
+    }
+
+    @Override
+    public void close() {
+        synchronized (writer) {
+            all.forEach(Handle::close);
+        }
+    }
+}
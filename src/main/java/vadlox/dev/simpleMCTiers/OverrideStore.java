@@ -0,0 +1,375 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The whole overrides table, held in memory and keyed by (username, gamemode).
+ * Reads never touch JDBC. Writes update memory immediately and are queued to a
+ * single writer thread that applies them to the database in order, batched per transaction.
+ * A batch that fails stays queued and is retried with backoff until the database takes it,
+ * so memory and the database only disagree until then; the caller hears about the failure.
+ * When other servers share the database, their changes are read back with {@link #reload}.
+ */
+final class OverrideStore {
+    // username is canonical (see IdentityResolver.key); gamemode == null holds the
+    // player-wide values (combat rank, points)
+    record Key(String username, String gamemode) {
+        Key {
+            username = IdentityResolver.key(username);
+        }
+    }
+    record Row(Integer tier, String combatrank, Integer points) {}
+
+    private sealed interface Op permits Upsert, Delete, Bulk {}
+    // written: completes once committed, or exceptionally the first time writing it fails
+    private record Upsert(Key key, Row value, CompletableFuture<Void> written) implements Op {}
+    private record Delete(String username, CompletableFuture<Void> written) implements Op {}
+    // an import: many rows, one ordered op, applied to memory and completed once committed
+    private record Bulk(Map<Key, Row> rows, IntConsumer progress, CompletableFuture<Integer> done) implements Op {}
+    private static final int BATCH_SIZE = 500;
+    private static final Op STOP = new Delete(null, null);
+    // backoff between attempts at a failing batch: doubles from MIN up to MAX
+    private static final long MIN_RETRY_MS = 1000;
+    private static final long MAX_RETRY_MS = 60_000;
+    // change-log name for "every row" (bulk import); never a valid player name
+    static final String ALL = "*";
+    private static final String SELECT = "SELECT username, gamemode, tier, combatrank, points FROM overrides";
+
+    private final OverrideDatabase database;
+    private final Logger logger;
+    private final ConcurrentHashMap<Key, Row> overrides = new ConcurrentHashMap<>();
+    private final BlockingQueue<Op> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    // queued local writes per username (ALL for imports); reloads never overwrite these
+    private final ConcurrentHashMap<String, Integer> pending = new ConcurrentHashMap<>();
+    // bumped by every local write, so a reload can tell one raced with its read
+    private final AtomicLong localWrites = new AtomicLong();
+
+    OverrideStore(OverrideDatabase database, Logger logger, Metrics metrics) {
+        this.database = database;
+        this.logger = logger;
+        metrics.gauge("simplemctiers_cache_entries", overrides::size, "cache", "overrides");
+        metrics.gauge("simplemctiers_override_writes_pending", queue::size);
+        this.writer = new Thread(this::writeLoop, "SimpleMCTiers-OverrideWriter");
+        this.writer.setDaemon(true);
+    }
+
+    // Load every row, then start the writer
+    void load() throws SQLException {
+        overrides.putAll(database.read(h -> readRows(h.statement(SELECT))));
+        writer.start();
+    }
+
+    private Map<Key, Row> readRows(PreparedStatement ps) throws SQLException {
+        Map<Key, Row> out = new HashMap<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Integer tier = rs.getInt("tier");   if (rs.wasNull()) tier = null;
+                String rank = rs.getString("combatrank");
+                Integer pts = rs.getInt("points");  if (rs.wasNull()) pts = null;
+                String mode = database.dialect().gamemodeOf(rs.getString("gamemode"));
+                out.put(new Key(rs.getString("username"), mode), new Row(tier, rank, pts));
+            }
+        }
+        return out;
+    }
+
+    // Drain everything still queued, then stop the writer
+    void shutdown() {
+        if (!writer.isAlive()) return;
+        queue.add(STOP);
+        try { writer.join(TimeUnit.SECONDS.toMillis(10)); }
+        catch (InterruptedException e) { Thread.currentThread().interrupt(); }
+    }
+
+    // ------------------------------------------------------------------------
+    // Reads
+    // ------------------------------------------------------------------------
+    Row get(String user, String mode) {
+        return overrides.get(new Key(user, mode));
+    }
+
+    Integer tier(String user, String mode) {
+        Row o = get(user, mode);
+        return o != null ? o.tier() : null;
+    }
+
+    Integer points(String user) {
+        Row o = get(user, null);
+        return o != null ? o.points() : null;
+    }
+
+    String combatRank(String user) {
+        Row o = get(user, null);
+        return o != null ? o.combatrank() : null;
+    }
+
+    // Canonical names of every player with at least one override
+    Set<String> usernames() {
+        Set<String> out = new HashSet<>();
+        for (Key k : overrides.keySet()) out.add(k.username());
+        return out;
+    }
+
+    // ------------------------------------------------------------------------
+    // Writes (memory first, the database behind)
+    // ------------------------------------------------------------------------
+    /**
+     * Null arguments keep the current value, like the old SELECT + REPLACE did.
+     * @return completes once the change is committed; completes exceptionally the first time
+     *         writing it fails, while the change stays queued and is retried
+     */
+    synchronized CompletableFuture<Void> upsert(String user, String mode, Integer tier, String combatrank, Integer points) {
+        Key key = new Key(user, mode);
+        Row merged = overrides.compute(key, (k, cur) -> new Row(
+                tier       != null ? tier       : cur != null ? cur.tier()       : null,
+                combatrank != null ? combatrank : cur != null ? cur.combatrank() : null,
+                points     != null ? points     : cur != null ? cur.points()     : null
+        ));
+        Upsert op = new Upsert(key, merged, new CompletableFuture<>());
+        enqueue(op, key.username());
+        return op.written();
+    }
+
+    /**
+     * Replace many rows at once (bulk import). The rows reach the database in order with every
+     * other queued change, as batched statements in one transaction, and only then memory, in
+     * one step; a row for a player changed locally since is left to that newer change.
+     * @param progress called with the number of rows staged so far (not yet committed), every BATCH_SIZE rows
+     * @return completes with the row count once committed and applied; completes exceptionally
+     *         when the transaction fails, in which case nothing was applied and it is not retried
+     */
+    synchronized CompletableFuture<Integer> importRows(Map<Key, Row> rows, IntConsumer progress) {
+        Map<Key, Row> copy = Map.copyOf(rows);
+        Bulk bulk = new Bulk(copy, progress, new CompletableFuture<>());
+        enqueue(bulk, ALL);
+        return bulk.done();
+    }
+
+    // Weakly consistent view of every row, for export
+    Set<Map.Entry<Key, Row>> rows() {
+        return overrides.entrySet();
+    }
+
+    // @return as for upsert
+    synchronized CompletableFuture<Void> delete(String user) {
+        String key = IdentityResolver.key(user);
+        overrides.keySet().removeIf(k -> k.username().equals(key));
+        Delete op = new Delete(key, new CompletableFuture<>());
+        enqueue(op, key);
+        return op.written();
+    }
+
+    // Called holding the lock, with memory already updated
+    private void enqueue(Op op, String username) {
+        localWrites.incrementAndGet();
+        pending.merge(username, 1, Integer::sum);
+        queue.add(op);
+    }
+
+    private static String username(Op op) {
+        if (op instanceof Upsert u) return u.key().username();
+        if (op instanceof Delete d) return d.username();
+        return ALL;
+    }
+
+    // ------------------------------------------------------------------------
+    // Changes from other servers
+    // ------------------------------------------------------------------------
+    /**
+     * Re-read one player's rows (or every row, for {@link #ALL}) after another server changed them.
+     * @return false when a local write for them is still queued or raced with the read; the
+     *         caller tries again later, by which time the database has the final order
+     */
+    boolean reload(String user) throws SQLException {
+        String name = user.equals(ALL) ? ALL : IdentityResolver.key(user);
+        long seen = localWrites.get();
+        if (name.equals(ALL) ? !pending.isEmpty() : pending.containsKey(name) || pending.containsKey(ALL)) return false;
+        Map<Key, Row> rows = database.read(h -> {
+            if (name.equals(ALL)) return readRows(h.statement(SELECT));
+            PreparedStatement ps = h.statement(SELECT + " WHERE username=?");
+            ps.setString(1, name);
+            return readRows(ps);
+        });
+        synchronized (this) {
+            if (localWrites.get() != seen) return false;
+            overrides.keySet().removeIf(k -> (name.equals(ALL) || k.username().equals(name)) && !rows.containsKey(k));
+            overrides.putAll(rows);
+        }
+        return true;
+    }
+
+    // ------------------------------------------------------------------------
+    // Writer thread
+    // ------------------------------------------------------------------------
+    private void writeLoop() {
+        List<Op> batch = new ArrayList<>();
+        boolean running = true;
+        // > 0 while the batch in hand keeps failing; changes queued meanwhile join it, in order
+        long retryMs = 0;
+        int attempts = 0;
+        while (running) {
+            try {
+                if (retryMs == 0) batch.add(queue.take());
+                else awaitRetry(batch, retryMs);
+                queue.drainTo(batch);
+            } catch (InterruptedException e) {
+                queue.drainTo(batch);
+                running = false;
+            }
+            if (batch.removeIf(op -> op == STOP)) {
+                queue.drainTo(batch);
+                running = false;
+            }
+            if (batch.isEmpty()) continue;
+            attempts++;
+            if (flush(batch, attempts == 1)) {
+                if (attempts > 1) logger.info("Wrote " + batch.size() + " override change(s) after " + attempts + " attempts");
+                batch.clear();
+                retryMs = 0;
+                attempts = 0;
+            } else if (batch.isEmpty()) {
+                // only imports failed, and those are not retried
+                retryMs = 0;
+                attempts = 0;
+            } else if (running) {
+                retryMs = retryMs == 0 ? MIN_RETRY_MS : Math.min(MAX_RETRY_MS, retryMs * 2);
+            } else {
+                logger.severe("Giving up on " + batch.size() + " override change(s) on shutdown; they are lost");
+            }
+        }
+    }
+
+    // Sleep out the backoff, collecting what gets queued meanwhile; a stop cuts it short
+    private void awaitRetry(List<Op> batch, long retryMs) throws InterruptedException {
+        long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(retryMs);
+        for (long left; (left = until - System.nanoTime()) > 0; ) {
+            Op next = queue.poll(left, TimeUnit.NANOSECONDS);
+            if (next == null) return;
+            batch.add(next);
+            if (next == STOP) return;
+        }
+    }
+
+    // @return false when the transaction failed; the batch is then kept for the next attempt
+    private boolean flush(List<Op> batch, boolean firstAttempt) {
+        SqlDialect dialect = database.dialect();
+        try {
+            database.write(h -> {
+                PreparedStatement del = h.statement("DELETE FROM overrides WHERE username=? AND " + dialect.sameGamemode);
+                PreparedStatement ins = h.statement("INSERT INTO overrides(username,gamemode,tier,combatrank,points) VALUES(?,?,?,?,?)");
+                PreparedStatement delUser = h.statement("DELETE FROM overrides WHERE username=?");
+                for (Op op : batch) {
+                    if (op instanceof Upsert u) {
+                        // DELETE + INSERT instead of REPLACE: the primary key does not dedupe NULL gamemodes
+                        del.setString(1, u.key().username());
+                        del.setString(2, dialect.gamemode(u.key().gamemode()));
+                        del.executeUpdate();
+                        bind(ins, dialect, u.key(), u.value());
+                        ins.executeUpdate();
+                    } else if (op instanceof Delete d) {
+                        delUser.setString(1, d.username());
+                        delUser.executeUpdate();
+                    } else if (op instanceof Bulk b) {
+                        writeBulk(b, dialect, del, ins);
+                    }
+                }
+                // one entry per player for the other servers, in the same transaction
+                Set<String> changed = new LinkedHashSet<>();
+                for (Op op : batch) changed.add(username(op));
+                for (String name : changed) database.logChange(h, "override", name);
+                return null;
+            });
+        } catch (SQLException e) {
+            boolean retried = batch.stream().anyMatch(op -> !(op instanceof Bulk));
+            if (firstAttempt) logger.log(Level.SEVERE, "Failed to write " + batch.size() + " override change(s)"
+                    + (retried ? ", retrying" : ""), e);
+            else logger.warning("Still failing to write " + batch.size() + " override change(s): " + e.getMessage());
+            // no-ops for ops that already failed once
+            for (Op op : batch) written(op).completeExceptionally(e);
+            // an import never reached memory, so the admin runs it again instead
+            batch.removeIf(op -> {
+                if (!(op instanceof Bulk)) return false;
+                release(op);
+                return true;
+            });
+            return false;
+        }
+        for (Op op : batch) {
+            if (op instanceof Bulk b) {
+                apply(b);
+                b.done().complete(b.rows().size());
+            } else {
+                written(op).complete(null);
+            }
+            release(op);
+        }
+        return true;
+    }
+
+    // Committed import rows into memory, in batch order: earlier ops are released by now, so a
+    // player still pending has a newer local change that memory already holds
+    private synchronized void apply(Bulk b) {
+        for (Map.Entry<Key, Row> e : b.rows().entrySet()) {
+            if (!pending.containsKey(e.getKey().username())) overrides.put(e.getKey(), e.getValue());
+        }
+        localWrites.incrementAndGet();
+    }
+
+    // Only now may reloads overwrite this player again
+    private void release(Op op) {
+        pending.computeIfPresent(username(op), (k, n) -> n > 1 ? n - 1 : null);
+    }
+
+    private static CompletableFuture<?> written(Op op) {
+        if (op instanceof Upsert u) return u.written();
+        if (op instanceof Delete d) return d.written();
+        return ((Bulk) op).done();
+    }
+
+    private static void writeBulk(Bulk b, SqlDialect dialect, PreparedStatement del, PreparedStatement ins) throws SQLException {
+        int n = 0;
+        for (Map.Entry<Key, Row> e : b.rows().entrySet()) {
+            del.setString(1, e.getKey().username());
+            del.setString(2, dialect.gamemode(e.getKey().gamemode()));
+            del.addBatch();
+            bind(ins, dialect, e.getKey(), e.getValue());
+            ins.addBatch();
+            if (++n % BATCH_SIZE == 0) {
+                del.executeBatch();
+                ins.executeBatch();
+                b.progress().accept(n);
+            }
+        }
+        del.executeBatch();
+        ins.executeBatch();
+        if (n % BATCH_SIZE != 0) b.progress().accept(n);
+    }
+
+    private static void bind(PreparedStatement ins, SqlDialect dialect, Key k, Row v) throws SQLException {
+        ins.setString(1, k.username());
+        ins.setString(2, dialect.gamemode(k.gamemode()));
+        if (v.tier()       != null) ins.setInt(3, v.tier());          else ins.setNull(3, Types.INTEGER);
+        if (v.combatrank() != null) ins.setString(4, v.combatrank()); else ins.setNull(4, Types.VARCHAR);
+        if (v.points()     != null) ins.setInt(5, v.points());        else ins.setNull(5, Types.INTEGER);
+    }
+}
@@ -0,0 +1,235 @@
+package vadlox.dev.simpleMCTiers;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.function.IntConsumer;
+
+/**
+ * Bulk import / export of the overrides table as CSV or JSON (chosen by file extension).
+ * Files are streamed row by row; an import is merged in memory and handed to
+ * {@link OverrideStore#importRows} as a single batched transaction.
+ *
+ * CSV: header {@code username,gamemode,tier,combatrank,points}, empty cells meaning "unset".
+ * JSON: an array of objects with the same keys. A row without gamemode holds the player-wide
+ * values (combat rank, points); tiers may be given as a number or as HT#. Overrides are always
+ * high tiers, so an LT# row is rejected rather than turned into HT#.
+ */
+final class OverrideTransfer {
+    record Result(int rows, int skipped) {}
+
+    private static final String[] COLUMNS = {"username", "gamemode", "tier", "combatrank", "points"};
+    // how often progress is reported while reading
+    static final int PROGRESS_EVERY = 1000;
+
+    private final OverrideStore overrides;
+
+    OverrideTransfer(OverrideStore overrides) {
+        this.overrides = overrides;
+    }
+
+    static boolean supported(File file) {
+        String n = file.getName().toLowerCase(Locale.ROOT);
+        return n.endsWith(".csv") || n.endsWith(".json");
+    }
+
+    private static boolean json(File file) {
+        return file.getName().toLowerCase(Locale.ROOT).endsWith(".json");
+    }
+
+    // ------------------------------------------------------------------------
+    // Import
+    // ------------------------------------------------------------------------
+    /**
+     * Reads, validates and merges every row (unset values keep the current override),
+     * then writes them in one transaction. Blocks until committed; nothing is applied if it fails.
+     * @param read   called with the number of rows read so far
+     * @param staged called with the number of rows staged in the transaction so far
+     */
+    Result importFile(File file, IntConsumer read, IntConsumer staged) throws IOException {
+        Map<OverrideStore.Key, OverrideStore.Row> merged = new HashMap<>();
+        int[] counts = new int[2]; // rows, skipped
+        RowSink sink = (user, mode, tier, rank, points) -> {
+            if (++counts[0] % PROGRESS_EVERY == 0) read.accept(counts[0]);
+            try {
+                OverrideStore.Key key = new OverrideStore.Key(validName(user), validMode(mode));
+                OverrideStore.Row cur = merged.get(key);
+                if (cur == null) cur = overrides.get(key.username(), key.gamemode());
+                Integer t = validTier(tier);
+                String r = validRank(rank);
+                Integer p = validInt(points);
+                merged.put(key, new OverrideStore.Row(
+                        t != null ? t : cur != null ? cur.tier()       : null,
+                        r != null ? r : cur != null ? cur.combatrank() : null,
+                        p != null ? p : cur != null ? cur.points()     : null));
+            } catch (IllegalArgumentException e) {
+                counts[1]++;
+            }
+        };
+        if (json(file)) readJson(file, sink); else readCsv(file, sink);
+
+        try {
+            overrides.importRows(merged, staged).join();
+        } catch (CompletionException e) {
+            throw new IOException("Database write failed: " + e.getCause().getMessage(), e.getCause());
+        }
+        return new Result(merged.size(), counts[1]);
+    }
+
+    @FunctionalInterface
+    private interface RowSink {
+        void accept(String user, String mode, String tier, String rank, String points);
+    }
+
+    private static void readCsv(File file, RowSink sink) throws IOException {
+        try (BufferedReader r = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            String line = r.readLine();
+            if (line == null) return;
+            // header decides the column order
+            String[] header = split(line);
+            int[] at = new int[COLUMNS.length];
+            for (int c = 0; c < COLUMNS.length; c++) {
+                at[c] = -1;
+                for (int h = 0; h < header.length; h++) if (header[h].equalsIgnoreCase(COLUMNS[c])) at[c] = h;
+            }
+            if (at[0] < 0) throw new IOException("CSV header must contain a username column");
+            while ((line = r.readLine()) != null) {
+                if (line.isBlank()) continue;
+                String[] f = split(line);
+                sink.accept(cell(f, at[0]), cell(f, at[1]), cell(f, at[2]), cell(f, at[3]), cell(f, at[4]));
+            }
+        }
+    }
+
+    private static String[] split(String line) {
+        String[] f = line.split(",", -1);
+        for (int i = 0; i < f.length; i++) {
+            String v = f[i].trim();
+            if (v.length() >= 2 && v.startsWith("\"") && v.endsWith("\"")) v = v.substring(1, v.length() - 1);
+            f[i] = v;
+        }
+        return f;
+    }
+
+    private static String cell(String[] f, int i) {
+        return i >= 0 && i < f.length && !f[i].isEmpty() ? f[i] : null;
+    }
+
+    private static void readJson(File file, RowSink sink) throws IOException {
+        try (JsonReader r = new JsonReader(Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8))) {
+            r.beginArray();
+            while (r.hasNext()) {
+                String[] v = new String[COLUMNS.length];
+                r.beginObject();
+                while (r.hasNext()) {
+                    String field = r.nextName();
+                    int c = 0;
+                    while (c < COLUMNS.length && !COLUMNS[c].equalsIgnoreCase(field)) c++;
+                    if (c == COLUMNS.length || r.peek() == JsonToken.NULL) {
+                        r.skipValue();
+                    } else {
+                        v[c] = r.nextString(); // numbers are read as their text
+                    }
+                }
+                r.endObject();
+                sink.accept(v[0], v[1], v[2], v[3], v[4]);
+            }
+            r.endArray();
+        } catch (IllegalStateException e) {
+            throw new IOException("Malformed JSON: " + e.getMessage(), e);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Validation (IllegalArgumentException skips the row)
+    // ------------------------------------------------------------------------
+    private static String validName(String user) {
+        if (user == null || !user.matches("[A-Za-z0-9_]{1,16}")) throw new IllegalArgumentException("username");
+        return user;
+    }
+
+    private static String validMode(String mode) {
+        if (mode == null) return null;
+        Gamemode g = Gamemode.of(mode);
+        if (g == null) throw new IllegalArgumentException("gamemode");
+        return g.id();
+    }
+
+    private static Integer validTier(String tier) {
+        if (tier == null) return null;
+        String t = tier.toUpperCase(Locale.ROOT);
+        if (t.startsWith("LT")) throw new IllegalArgumentException("tier");
+        if (t.matches("HT\\d+")) t = t.substring(2);
+        int v = Integer.parseInt(t); // NumberFormatException is an IllegalArgumentException
+        if (v < 1) throw new IllegalArgumentException("tier");
+        return v;
+    }
+
+    private static String validRank(String rank) {
+        if (rank == null) return null;
+        String r = rank.toUpperCase(Locale.ROOT);
+        if (!TierFormatter.RANKS.contains(r)) throw new IllegalArgumentException("combatrank");
+        return r;
+    }
+
+    private static Integer validInt(String v) {
+        return v == null ? null : Integer.parseInt(v);
+    }
+
+    // ------------------------------------------------------------------------
+    // Export
+    // ------------------------------------------------------------------------
+    // @return the number of rows written
+    int exportFile(File file) throws IOException {
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        int n = 0;
+        try (BufferedWriter w = Files.newBufferedWriter(tmp.toPath(), StandardCharsets.UTF_8)) {
+            if (json(file)) {
+                JsonWriter jw = new JsonWriter(w);
+                jw.setIndent("  ");
+                jw.beginArray();
+                for (Map.Entry<OverrideStore.Key, OverrideStore.Row> e : overrides.rows()) {
+                    OverrideStore.Key k = e.getKey();
+                    OverrideStore.Row v = e.getValue();
+                    jw.beginObject();
+                    jw.name("username").value(k.username());
+                    jw.name("gamemode").value(k.gamemode());
+                    jw.name("tier").value(v.tier());
+                    jw.name("combatrank").value(v.combatrank());
+                    jw.name("points").value(v.points());
+                    jw.endObject();
+                    n++;
+                }
+                jw.endArray();
+                jw.flush();
+            } else {
+                w.write(String.join(",", COLUMNS));
+                w.newLine();
+                for (Map.Entry<OverrideStore.Key, OverrideStore.Row> e : overrides.rows()) {
+                    OverrideStore.Key k = e.getKey();
+                    OverrideStore.Row v = e.getValue();
+                    w.write(k.username() + "," + text(k.gamemode()) + "," + text(v.tier()) + ","
+                            + text(v.combatrank()) + "," + text(v.points()));
+                    w.newLine();
+                    n++;
+                }
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+        return n;
+    }
+
+    private static String text(Object v) {
+        return v != null ? v.toString() : "";
+    }
+}
@@ -0,0 +1,187 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Keeps an immutable snapshot of every placeholder value for each online player.
+ * Snapshots are built on background workers and swapped in atomically, so
+ * placeholder requests never do any I/O themselves. A complete rebuild (every source answered
+ * in time, from live data) is compared with the player's last complete one and {@link #onChange}
+ * is told what differs; degraded fills are rendered but never compared, so a late or recovering
+ * source does not look like a change.
+ */
+final class PlaceholderResolver {
+    // Resolved placeholder values for one player, keyed "<identifier>_<params>", and the tiers behind them;
+    // baseline is the state of the last complete build, null until there is one
+    record Snapshot(String name, Map<String,String> values, TierState state, long builtAt, TierState baseline) {}
+
+    // What the builder produces for one player; complete: no source failed, ran late or served stale data
+    record Built(Map<String,String> values, TierState state, boolean complete) {}
+
+    // The values that differ between a player's previous snapshot and the new one
+    record Changed(UUID id, String name, List<TierState.Change> changes) {}
+
+    private final Logger logger;
+    private final Function<String, Built> builder;
+    private final String loadingValue;
+    private final Metrics.Histogram buildTime;
+    private final Metrics.Counter changes;
+
+    // told about complete rebuilds that changed a tier; never for a player's first complete snapshot
+    private volatile Consumer<Changed> onChange = changed -> {};
+
+    private final ConcurrentHashMap<UUID, String> tracked = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> pending  = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService workers;
+    private final ScheduledExecutorService ticker;
+
+    PlaceholderResolver(Logger logger, Function<String, Built> builder,
+                        String loadingValue, int workerCount, long refreshSeconds, Metrics metrics) {
+        this.logger = logger;
+        this.builder = builder;
+        this.loadingValue = loadingValue;
+        this.buildTime = metrics.histogram("simplemctiers_snapshot_build_seconds");
+        this.changes = metrics.counter("simplemctiers_tier_changes_total");
+        metrics.gauge("simplemctiers_tracked_players", tracked::size);
+        metrics.gauge("simplemctiers_inflight", inFlight::size, "kind", "snapshot_builds");
+        this.workers = Executors.newFixedThreadPool(Math.max(1, workerCount), threads("SimpleMCTiers-Resolver"));
+        this.ticker = Executors.newSingleThreadScheduledExecutor(threads("SimpleMCTiers-Refresh"));
+        if (refreshSeconds > 0) {
+            ticker.scheduleAtFixedRate(this::refreshAll, refreshSeconds, refreshSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    void onChange(Consumer<Changed> listener) {
+        this.onChange = listener;
+    }
+
+    // ------------------------------------------------------------------------
+    // Player tracking
+    // ------------------------------------------------------------------------
+    void track(UUID id, String name) {
+        tracked.put(id, name);
+        refresh(id);
+    }
+
+    void untrack(UUID id) {
+        tracked.remove(id);
+        snapshots.remove(id);
+        pending.remove(id);
+    }
+
+    // Names of the players whose placeholders are kept, i.e. the online ones
+    Collection<String> trackedNames() {
+        return tracked.values();
+    }
+
+    // Rebuild every tracked player whose name matches (e.g. after an override edit)
+    void refreshByName(String name) {
+        tracked.forEach((id, n) -> { if (n.equalsIgnoreCase(name)) refresh(id); });
+    }
+
+    void refreshAll() {
+        tracked.keySet().forEach(this::refresh);
+    }
+
+    void refresh(UUID id) {
+        if (!tracked.containsKey(id)) return;
+        if (!inFlight.add(id)) {
+            // a build is already running; run once more after it finishes
+            pending.add(id);
+            // unless it finished before seeing the mark, in which case this call takes over
+            if (!inFlight.add(id)) return;
+            pending.remove(id);
+        }
+        try {
+            workers.execute(() -> build(id));
+        } catch (RuntimeException e) {
+            // executor shut down during disable
+            inFlight.remove(id);
+        }
+    }
+
+    private void build(UUID id) {
+        long start = System.nanoTime();
+        try {
+            String name = tracked.get(id);
+            if (name == null) return;
+            Built built = builder.apply(name);
+            // builds for one player never overlap, so previous is the one this build replaces
+            Snapshot previous = snapshots.get(id);
+            TierState baseline = previous != null && previous.name().equals(name) ? previous.baseline() : null;
+            Snapshot next = new Snapshot(name, Map.copyOf(built.values()), built.state(), System.currentTimeMillis(),
+                    built.complete() ? built.state() : baseline);
+            // only publish if the player did not leave while we were resolving
+            if (!tracked.containsKey(id)) return;
+            snapshots.put(id, next);
+            if (built.complete() && baseline != null) {
+                List<TierState.Change> diff = built.state().changesSince(baseline);
+                if (!diff.isEmpty()) {
+                    changes.inc(diff.size());
+                    onChange.accept(new Changed(id, name, diff));
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Placeholder refresh failed", e);
+        } finally {
+            buildTime.since(start);
+            inFlight.remove(id);
+            if (pending.remove(id)) refresh(id);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Lookups (called from PlaceholderAPI, never blocks)
+    // ------------------------------------------------------------------------
+    /**
+     * @return the resolved value, {@code loading} until the first fill completes,
+     * or {@code missing} when the snapshot has no such key
+     */
+    String get(UUID id, String name, String key, String missing) {
+        Snapshot s = snapshots.get(id);
+        if (s == null) {
+            if (!tracked.containsKey(id)) track(id, name);
+            return loadingValue;
+        }
+        String v = s.values().get(key);
+        return v != null ? v : missing;
+    }
+
+    Snapshot snapshot(UUID id) {
+        return snapshots.get(id);
+    }
+
+    void shutdown() {
+        ticker.shutdownNow();
+        workers.shutdownNow();
+        tracked.clear();
+        snapshots.clear();
+    }
+
+    private static ThreadFactory threads(String prefix) {
+        AtomicInteger n = new AtomicInteger();
+        return r -> {
+            Thread t = new Thread(r, prefix + "-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+    }
+}
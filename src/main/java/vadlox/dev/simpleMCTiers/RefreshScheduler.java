@@ -0,0 +1,140 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Reloads aged mctiers.com profiles at a fixed budget, instead of whenever a read happens to
+ * find one aged. Every {@link #tick} ranks the players whose record is past refresh-after
+ * (online players first, then names looked up within the last few minutes, the oldest record
+ * first within each) and starts as many reloads as the token buckets allow: one mctiers.com
+ * token per reload, plus a Mojang token when the name has to be resolved again. An upstream
+ * that asked us to hold off (429 / Retry-After) is skipped until its {@link HostLimiter}
+ * lets requests through again. The rate is the budget, however many players there are.
+ * {@link #tick} runs on the maintenance thread only.
+ */
+final class RefreshScheduler {
+    // visibility: 0 online, 1 recently looked up
+    private record Candidate(String name, int visibility, long writtenAt) {}
+
+    private static final Comparator<Candidate> ORDER =
+            Comparator.comparingInt(Candidate::visibility).thenComparingLong(Candidate::writtenAt);
+    // beyond this many looked-up names only the newer half of the window is kept
+    private static final int MAX_RECENT = 10_000;
+
+    // Refills continuously at perSecond, holding at most burst tokens
+    static final class Budget {
+        private final double perSecond;
+        private final double burst;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        Budget(double perSecond, double burst) {
+            this.perSecond = Math.max(0, perSecond);
+            this.burst = Math.max(1, burst);
+            this.tokens = this.burst;
+        }
+
+        boolean available() {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) / 1e9 * perSecond);
+            refilledAt = now;
+            return tokens >= 1;
+        }
+
+        void spend() {
+            tokens -= 1;
+        }
+    }
+
+    private final TierRepository tiers;
+    private final TierCache<TierRecord> cache;
+    private final IdentityResolver identities;
+    private final Supplier<Collection<String>> online;
+    private final HostLimiter mctiersHost;
+    private final HostLimiter mojangHost;
+    private final Budget mctiers;
+    private final Budget mojang;
+    private final long recentNanos;
+
+    // canonical name -> when it was last looked up (System.nanoTime)
+    private final ConcurrentHashMap<String, Long> recent = new ConcurrentHashMap<>();
+    private volatile int due;
+
+    private final Metrics.Counter started;
+    private final Metrics.Counter paused;
+
+    /**
+     * @param online        names of the players online now
+     * @param recentSeconds how long a looked-up name keeps being refreshed
+     */
+    RefreshScheduler(TierRepository tiers, IdentityResolver identities, Supplier<Collection<String>> online,
+                     HostLimiter mctiersHost, Budget mctiers, HostLimiter mojangHost, Budget mojang,
+                     long recentSeconds, Metrics metrics) {
+        this.tiers = tiers;
+        this.cache = tiers.cache();
+        this.identities = identities;
+        this.online = online;
+        this.mctiersHost = mctiersHost;
+        this.mojangHost = mojangHost;
+        this.mctiers = mctiers;
+        this.mojang = mojang;
+        this.recentNanos = TimeUnit.SECONDS.toNanos(Math.max(0, recentSeconds));
+        this.started  = metrics.counter("simplemctiers_refresh_total", "result", "started");
+        this.paused   = metrics.counter("simplemctiers_refresh_total", "result", "paused");
+        metrics.gauge("simplemctiers_refresh_due", () -> due);
+        metrics.gauge("simplemctiers_refresh_recent_names", recent::size);
+    }
+
+    // Called by TierRepository for every lookup
+    void looked(String playerName) {
+        recent.put(IdentityResolver.key(playerName), System.nanoTime());
+    }
+
+    void tick() {
+        long now = System.nanoTime();
+        recent.values().removeIf(at -> now - at > recentNanos);
+        if (recent.size() > MAX_RECENT) recent.values().removeIf(at -> now - at > recentNanos / 2);
+
+        PriorityQueue<Candidate> queue = new PriorityQueue<>(ORDER);
+        Set<String> seen = new HashSet<>();
+        for (String name : online.get()) {
+            String key = IdentityResolver.key(name);
+            if (seen.add(key)) consider(queue, key, 0);
+        }
+        for (String key : recent.keySet()) {
+            if (seen.add(key)) consider(queue, key, 1);
+        }
+        due = queue.size();
+        if (queue.isEmpty()) return;
+        if (mctiersHost.pausedMillis() > 0) {
+            paused.inc();
+            return;
+        }
+
+        boolean mojangOpen = mojangHost.pausedMillis() == 0;
+        while (!queue.isEmpty() && mctiers.available()) {
+            Candidate c = queue.poll();
+            // an expired identity costs a Mojang request before the mctiers.com one
+            boolean needsMojang = identities.cached(c.name()) == null;
+            if (needsMojang && !(mojangOpen && mojang.available())) continue;
+            if (!tiers.refresh(c.name())) continue;
+            mctiers.spend();
+            if (needsMojang) mojang.spend();
+            started.inc();
+        }
+    }
+
+    // Aged positive records only; a player without one is loaded by the next lookup anyway
+    private void consider(PriorityQueue<Candidate> queue, String key, int visibility) {
+        TierCache.Entry<TierRecord> e = cache.getStale(key);
+        if (e == null || !cache.needsRefresh(e)) return;
+        queue.add(new Candidate(key, visibility, e.writtenAt()));
+    }
+}
@@ -0,0 +1,236 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * mctiers.com profiles shared by every server on one database, so a network fetches each
+ * player once instead of once per server. Before going upstream a server takes a lease on
+ * the player's tier_cache row; the others wait for the row to fill instead of sending their
+ * own request. A lease that runs out (the fetching server is slow or gone) lets the next
+ * server fetch. Any database error falls back to fetching independently.
+ */
+final class SharedTierCache {
+    // record == null: the player does not exist / is not ranked (a negative entry)
+    record Hit(TierRecord record) {}
+
+    // one stored row; record is the encoded TierRecord
+    private record Stored(byte[] record, long fetchedAt, long leaseUntil) {}
+
+    private static final long POLL_MS = 200;
+    private static final int MODES = Gamemode.values().length;
+
+    private final OverrideDatabase database;
+    private final long freshMs;
+    private final long negativeMs;
+    private final long ttlMs;
+    private final long leaseMs;
+    private final Logger logger;
+
+    private final Metrics.Counter hits;
+    private final Metrics.Counter waited;
+    private final Metrics.Counter leased;
+    private final Metrics.Counter errors;
+
+    /**
+     * @param freshMs    a shared record younger than this is used instead of fetching (cache.refresh-after)
+     * @param negativeMs the same for "no such player" rows (cache.negative-ttl)
+     * @param ttlMs      rows older than this are pruned (cache.ttl)
+     * @param leaseMs    how long one server may take to fetch before another one tries
+     */
+    SharedTierCache(OverrideDatabase database, long freshMs, long negativeMs, long ttlMs, long leaseMs,
+                    Logger logger, Metrics metrics) {
+        this.database = database;
+        this.freshMs = freshMs;
+        this.negativeMs = negativeMs;
+        this.ttlMs = ttlMs;
+        this.leaseMs = Math.max(1000, leaseMs);
+        this.logger = logger;
+        this.hits   = metrics.counter("simplemctiers_shared_cache_total", "result", "hit");
+        this.waited = metrics.counter("simplemctiers_shared_cache_total", "result", "waited");
+        this.leased = metrics.counter("simplemctiers_shared_cache_total", "result", "fetch");
+        this.errors = metrics.counter("simplemctiers_shared_cache_total", "result", "error");
+    }
+
+    // ------------------------------------------------------------------------
+    // Lookups (blocking; called from the loading thread)
+    // ------------------------------------------------------------------------
+    /**
+     * A record another server fetched recently, waiting while one is being fetched.
+     * @return the record, or null when this server should fetch it; it then holds the lease
+     *         until {@link #publish} or {@link #release}
+     */
+    Hit acquire(String key) {
+        long deadline = System.currentTimeMillis() + leaseMs;
+        boolean waiting = false;
+        try {
+            while (true) {
+                long now = System.currentTimeMillis();
+                Stored row = read(key);
+                Hit hit = fresh(row, now);
+                if (hit != null) {
+                    (waiting ? waited : hits).inc();
+                    return hit;
+                }
+                if (claim(key, row, now) || now >= deadline) {
+                    leased.inc();
+                    return null;
+                }
+                waiting = true;
+                Thread.sleep(POLL_MS);
+            }
+        } catch (SQLException | RuntimeException e) {
+            errors.inc();
+            logger.log(Level.FINE, "Shared tier cache unavailable for " + key, e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    // A fresh shared record without waiting or leasing, or null
+    Hit get(String key) {
+        try {
+            return fresh(read(key), System.currentTimeMillis());
+        } catch (SQLException | RuntimeException e) {
+            errors.inc();
+            logger.log(Level.FINE, "Shared tier cache unavailable for " + key, e);
+            return null;
+        }
+    }
+
+    private Stored read(String key) throws SQLException {
+        return database.read(h -> {
+            PreparedStatement ps = h.statement("SELECT record, fetched_at, lease_until FROM tier_cache WHERE name=?");
+            ps.setString(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? new Stored(rs.getBytes(1), rs.getLong(2), rs.getLong(3)) : null;
+            }
+        });
+    }
+
+    private Hit fresh(Stored row, long now) {
+        if (row == null || row.fetchedAt() <= 0) return null;
+        long age = now - row.fetchedAt();
+        if (row.record() == null) return age < negativeMs ? new Hit(null) : null;
+        if (age >= freshMs) return null;
+        TierRecord rec = decode(row.record());
+        return rec != null ? new Hit(rec) : null;
+    }
+
+    // Take the lease when nobody holds it (or theirs ran out)
+    private boolean claim(String key, Stored row, long now) throws SQLException {
+        return database.write(h -> {
+            if (row == null) {
+                PreparedStatement ins = h.statement(database.dialect().insertIgnore
+                        + " INTO tier_cache(name, lease_owner, lease_until) VALUES(?,?,?)");
+                ins.setString(1, key);
+                ins.setString(2, database.origin());
+                ins.setLong(3, now + leaseMs);
+                if (ins.executeUpdate() == 1) return true;
+            }
+            PreparedStatement ps = h.statement("UPDATE tier_cache SET lease_owner=?, lease_until=? WHERE name=? AND lease_until<?");
+            ps.setString(1, database.origin());
+            ps.setLong(2, now + leaseMs);
+            ps.setString(3, key);
+            ps.setLong(4, now);
+            return ps.executeUpdate() == 1;
+        });
+    }
+
+    // ------------------------------------------------------------------------
+    // Writes
+    // ------------------------------------------------------------------------
+    // Store what this server fetched (null: no such player), end the lease and tell the others
+    void publish(String key, TierRecord rec) {
+        byte[] bytes = rec != null ? encode(rec) : null;
+        long now = System.currentTimeMillis();
+        try {
+            database.write(h -> {
+                PreparedStatement ps = h.statement(
+                        "UPDATE tier_cache SET record=?, fetched_at=?, lease_owner=NULL, lease_until=0 WHERE name=?");
+                if (bytes != null) ps.setBytes(1, bytes); else ps.setNull(1, Types.VARBINARY);
+                ps.setLong(2, now);
+                ps.setString(3, key);
+                if (ps.executeUpdate() == 0) {
+                    // the row was pruned while we fetched
+                    PreparedStatement ins = h.statement(database.dialect().insertIgnore
+                            + " INTO tier_cache(name, record, fetched_at) VALUES(?,?,?)");
+                    ins.setString(1, key);
+                    if (bytes != null) ins.setBytes(2, bytes); else ins.setNull(2, Types.VARBINARY);
+                    ins.setLong(3, now);
+                    ins.executeUpdate();
+                }
+                database.logChange(h, "tier", key);
+                return null;
+            });
+        } catch (SQLException e) {
+            errors.inc();
+            logger.log(Level.FINE, "Could not share the profile of " + key, e);
+        }
+    }
+
+    // The fetch failed: let the next server try right away
+    void release(String key) {
+        try {
+            database.write(h -> {
+                PreparedStatement ps = h.statement("UPDATE tier_cache SET lease_owner=NULL, lease_until=0 WHERE name=? AND lease_owner=?");
+                ps.setString(1, key);
+                ps.setString(2, database.origin());
+                return ps.executeUpdate();
+            });
+        } catch (SQLException e) {
+            errors.inc();
+            logger.log(Level.FINE, "Could not release the lease on " + key, e);
+        }
+    }
+
+    // Drop rows nobody would use any more
+    void prune() {
+        long now = System.currentTimeMillis();
+        try {
+            database.write(h -> {
+                PreparedStatement ps = h.statement("DELETE FROM tier_cache WHERE fetched_at<? AND lease_until<?");
+                ps.setLong(1, now - Math.max(ttlMs, negativeMs));
+                ps.setLong(2, now);
+                return ps.executeUpdate();
+            });
+        } catch (SQLException e) {
+            logger.log(Level.WARNING, "Could not prune the shared tier cache: " + e.getMessage());
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // Encoding: the snapshot's binary form, prefixed with the gamemode count
+    // ------------------------------------------------------------------------
+    private static byte[] encode(TierRecord rec) {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(buf)) {
+            out.writeByte(MODES);
+            rec.writeTo(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buf.toByteArray();
+    }
+
+    // @return null for a row written by a version with other gamemodes
+    private static TierRecord decode(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readUnsignedByte() == MODES ? TierRecord.readFrom(in) : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -1,47 +1,90 @@
 package vadlox.dev.simpleMCTiers;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URI;
 import java.sql.*;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import me.clip.placeholderapi.expansion.PlaceholderExpansion;
 import me.clip.placeholderapi.PlaceholderAPI;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.*;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-public final class SimpleMCTiers extends JavaPlugin implements TabExecutor {
+public final class SimpleMCTiers extends JavaPlugin implements TabExecutor, Listener {
     // ------------------------------------------------------------------------
     // Constants & Fields
     // ------------------------------------------------------------------------
+    // defaults for upstream.<name>.url
     private static final String MOJANG_API_URL   = "https://api.mojang.com/users/profiles/minecraft/";
     private static final String MCTIERS_API_URL  = "https://mctiers.com/api/search_profile/";
     // VanillaList live root (single page contains all tables)
     private static final String VANILLALIST_URL  = "https://vanillalist.xyz/";
     private static final String PREFIX           = ChatColor.translateAlternateColorCodes('&', "&e&lTiers&8 » ");
-    private static final List<String> GAMEMODES  = Arrays.asList(
-            "axe","nethop","uhc","mace","smp","pot","vanilla","sword"
-    );
-    private static final List<String> COMBATRANKS= Arrays.asList("I","II","III","IV","V","X","S");
-
-    private final ConcurrentHashMap<String, String> cache = new ConcurrentHashMap<>();
-    // VanillaList per-player cache (mode -> tier code, e.g. HT3)
-    private final ConcurrentHashMap<String, Map<String,String>> vanillaCache = new ConcurrentHashMap<>();
-    private Connection connection;
+    private static final List<String> GAMEMODES  = Arrays.stream(Gamemode.values()).map(Gamemode::id).toList();
+    private static final int TOP_PAGE_SIZE       = 10;
+
+    // decoded mctiers.com profiles by canonical name, bounded with TTL; unknown names are cached negatively
+    private TierCache<TierRecord> cache;
+    // persistent name <-> UUID cache in front of the Mojang API
+    private IdentityResolver identities;
+    // periodic housekeeping (persisting caches)
+    private ScheduledExecutorService maintenance;
+    // global / per-player dispatch and the bounded pool for blocking I/O
+    private TaskScheduler scheduler;
+    // warm-start copy of the caches above, written on shutdown and periodically
+    private SnapshotStore snapshot;
+    // cached, single-flight mctiers.com lookups
+    private TierRepository tiers;
+    // shared HTTP client and the per-upstream policies (limiter, breaker, timeouts, retries)
+    private HttpFetcher http;
+    private HttpFetcher.Endpoint mojangApi;
+    private HttpFetcher.Endpoint mctiersApi;
+    private HttpFetcher.Endpoint vanillaListSite;
+    // warms caches for players during login
+    private JoinPrefetcher prefetcher;
+    // VanillaList leaderboard, refreshed on a schedule and shared by every lookup
+    private VanillaListRefresher vanillaList;
+    // SQLite file or MySQL server holding overrides (and, shared between servers, the tier cache)
+    private OverrideDatabase database;
+    // other servers' changes to a shared database; null when running alone
+    private NetworkSync network;
+    // overrides table, served from memory and written behind to SQLite
+    private OverrideStore overrides;
+    // Chat / placeholder rendering over records, overrides and the VanillaList index
+    private TierFormatter formatter;
+    // override / mctiers.com / VanillaList / ELO, asked concurrently in configured priority order
+    private TierChain chain;
+    // per-gamemode ranking for /tier top and %tier_pos_<mode>%
+    private Leaderboard leaderboard;
+    // every known player name, for tab completion; filled through the leaderboard and joins
+    private final KnownNames knownNames = new KnownNames();
+    private int suggestionLimit = 50;
+    // Precomputed placeholder values per online player
+    private PlaceholderResolver resolver;
+    // %tiertag_tier% from another plugin's ELO placeholder; null when elo-tag is disabled
+    private EloTagEngine eloTags;
+    // counters / latencies for /simplemctiers stats and the optional Prometheus endpoint
+    private final Metrics metrics = new Metrics();
+    private MetricsServer metricsServer;
 
     // ------------------------------------------------------------------------
     // Plugin Lifecycle
@@ -50,8 +93,104 @@ public final class SimpleMCTiers extends JavaPlugin implements TabExecutor {
     public void onEnable() {
         getLogger().info("SimpleMCTiers has been enabled");
         if (!getDataFolder().exists()) getDataFolder().mkdirs();
+        saveDefaultConfig();
         setupDatabase();
 
+        cache = new TierCache<>(
+                getConfig().getInt("cache.max-size", 5000),
+                getConfig().getLong("cache.ttl", 3600) * 1000L,
+                getConfig().getLong("cache.refresh-after", 900) * 1000L,
+                getConfig().getLong("cache.negative-ttl", 300) * 1000L
+        );
+        http = new HttpFetcher(Duration.ofMillis(getConfig().getLong("upstream.connect-timeout", 3000)), metrics);
+        String mojangUrl      = upstreamUrl("mojang", MOJANG_API_URL);
+        String mctiersUrl     = upstreamUrl("mctiers", MCTIERS_API_URL);
+        String vanillaListUrl = upstreamUrl("vanillalist", VANILLALIST_URL);
+        mojangApi       = endpoint("mojang", mojangUrl, 2, 2, 4000);
+        mctiersApi      = endpoint("mctiers", mctiersUrl, 4, 5, 5000);
+        vanillaListSite = endpoint("vanillalist", vanillaListUrl, 1, 0, 15000);
+        identities = new IdentityResolver(
+                mojangUrl,
+                http,
+                mojangApi,
+                getConfig().getInt("identity.max-size", 20000),
+                getConfig().getLong("identity.ttl", 604800) * 1000L,
+                getConfig().getLong("cache.negative-ttl", 300) * 1000L,
+                metrics
+        );
+        snapshot = new SnapshotStore(getDataFolder(), getLogger());
+        snapshot.load(cache, identities);
+        scheduler = new TaskScheduler(this, getConfig().getInt("scheduler.io-threads", 8),
+                getConfig().getInt("scheduler.io-queue", 1000), getLogger(), metrics);
+        tiers = new TierRepository(mctiersUrl, http, mctiersApi, identities, cache, scheduler.io(), metrics);
+        maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SimpleMCTiers-Maintenance");
+            t.setDaemon(true);
+            return t;
+        });
+        long snapshotInterval = Math.max(30, getConfig().getLong("snapshot.interval", 300));
+        maintenance.scheduleWithFixedDelay(this::saveSnapshot, snapshotInterval, snapshotInterval, TimeUnit.SECONDS);
+        maintenance.scheduleWithFixedDelay(identities::prune, 5, 5, TimeUnit.MINUTES);
+        prefetcher = new JoinPrefetcher(name -> {
+            try { tiers.fetch(name); } catch (IOException ignored) {}
+        }, getConfig().getInt("join.prefetch-threads", 4), getLogger());
+        metrics.gauge("simplemctiers_prefetch_queued", prefetcher::queued);
+
+        // before anything that reads the index; started once the leaderboard and resolver it updates exist
+        vanillaList = new VanillaListRefresher(
+                vanillaListUrl,
+                http,
+                vanillaListSite,
+                getDataFolder(),
+                () -> getResource("vanillalist_cached.html"),
+                idx -> {
+                    leaderboard.rebuild();
+                    resolver.refreshAll();
+                },
+                getLogger()
+        );
+        formatter = new TierFormatter(PREFIX, overrides, () -> vanillaList.index());
+        chain = tierChain();
+        leaderboard = new Leaderboard(cache, overrides, () -> vanillaList.index(), identities, knownNames);
+        for (Gamemode g : Gamemode.values()) {
+            metrics.gauge("simplemctiers_leaderboard_entries", () -> leaderboard.size(g), "gamemode", g.id());
+        }
+        resolver = new PlaceholderResolver(
+                getLogger(),
+                this::resolvePlaceholders,
+                ChatColor.translateAlternateColorCodes('&', getConfig().getString("placeholders.loading", "&7...")),
+                getConfig().getInt("placeholders.workers", 2),
+                getConfig().getLong("placeholders.refresh-interval", 300),
+                metrics
+        );
+        vanillaList.start(getConfig().getLong("vanillalist.refresh-interval", 3600));
+        leaderboard.rebuild();
+        chain.onLate(resolver::refreshByName);
+        // a refreshed profile is rendered (and any change announced) right away, not at the next refresh-interval
+        tiers.onStored(name -> {
+            leaderboard.update(name);
+            resolver.refreshByName(name);
+        });
+        resolver.onChange(this::fireTierChanges);
+        startRefresher();
+        // typed lookups for other plugins, over the same chain and caches
+        getServer().getServicesManager().register(TierService.class, new TierServiceImpl(chain, formatter, tiers,
+                overrides, identities, resolver, id -> {
+                    Player p = Bukkit.getPlayer(id);
+                    return p != null ? p.getName() : null;
+                }, metrics), this, ServicePriority.Normal);
+        startNetworkSync();
+        metrics.gauge("simplemctiers_cache_entries", () -> vanillaList.index().size(), "cache", "vanillalist");
+        metrics.gauge("simplemctiers_cache_entries", knownNames::size, "cache", "names");
+        startMetricsServer();
+        getServer().getPluginManager().registerEvents(this, this);
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            identities.remember(p.getUniqueId(), p.getName());
+            knownNames.add(p.getName());
+            resolver.track(p.getUniqueId(), p.getName());
+        }
+        suggestionLimit = Math.max(1, getConfig().getInt("tab-complete.max-suggestions", 50));
+
         // /tier
         getCommand("tier").setExecutor(this);
         getCommand("tier").setTabCompleter(this);
@@ -61,6 +200,7 @@ public final class SimpleMCTiers extends JavaPlugin implements TabExecutor {
 
         // PlaceholderAPI
         if (Bukkit.getPluginManager().getPlugin("PlaceholderAPI") != null) {
+            startEloTags();
             new TierPlaceholderExpansion(this).register();
             new CombatRankPlaceholderExpansion(this).register();
             new EloTierPlaceholderExpansion(this).register();
@@ -69,39 +209,191 @@ public final class SimpleMCTiers extends JavaPlugin implements TabExecutor {
         }
     }
 
+    private void startEloTags() {
+        if (!getConfig().getBoolean("elo-tag.enabled", true)) return;
+        String placeholder = getConfig().getString("elo-tag.placeholder", "%hnybpvpelo_elo%");
+        eloTags = new EloTagEngine(
+                EloTagEngine.bands(getConfig().getMapList("elo-tag.tiers"), getLogger()),
+                placeholder,
+                p -> PlaceholderAPI.setPlaceholders(p, placeholder),
+                scheduler::entity,
+                getConfig().getInt("elo-tag.period", 1200),
+                metrics
+        );
+        scheduler.everyTick(eloTags::tick);
+    }
+
+    // sources.order / sources.deadline.<id>; mctiers.com (and ELO, which needs its points) may wait on the network
+    private TierChain tierChain() {
+        List<TierChain.Link> links = new ArrayList<>();
+        List<String> order = getConfig().isList("sources.order") ? getConfig().getStringList("sources.order") : TierSources.IDS;
+        for (String id : order) {
+            id = id.toLowerCase(Locale.ROOT);
+            TierSource source = TierSources.byId(id, overrides, tiers, () -> vanillaList.index(), metrics);
+            if (source == null) {
+                getLogger().warning("Ignoring unknown tier source '" + id + "' in sources.order; known: " + TierSources.IDS);
+                continue;
+            }
+            long defaultDeadline = id.equals("mctiers") || id.equals("elo") ? 1500 : 0;
+            links.add(new TierChain.Link(source, getConfig().getLong("sources.deadline." + id, defaultDeadline)));
+        }
+        return new TierChain(links, metrics);
+    }
+
+    // Base URL of an upstream; overridable so a server (or the load test) can point at a mirror
+    private String upstreamUrl(String name, String def) {
+        String url = getConfig().getString("upstream." + name + ".url", "");
+        if (url == null || url.isBlank()) return def;
+        try {
+            if (URI.create(url).getHost() != null) return url;
+        } catch (IllegalArgumentException ignored) {}
+        getLogger().warning("Ignoring upstream." + name + ".url '" + url + "': not an absolute URL");
+        return def;
+    }
+
+    private HttpFetcher.Endpoint endpoint(String name, String url, int maxConcurrent, double rps, long timeoutMs) {
+        String p = "upstream." + name + ".";
+        String host = URI.create(url).getHost();
+        HostLimiter limiter = new HostLimiter(host, getConfig().getInt(p + "max-concurrent", maxConcurrent),
+                getConfig().getDouble(p + "requests-per-second", rps));
+        CircuitBreaker breaker = new CircuitBreaker(getConfig().getInt(p + "failure-threshold", 5),
+                getConfig().getLong(p + "open-seconds", 30) * 1000L);
+        metrics.gauge("simplemctiers_upstream_inflight", limiter::inFlight, "upstream", host);
+        metrics.gauge("simplemctiers_upstream_paused_seconds", () -> (limiter.pausedMillis() + 999) / 1000, "upstream", host);
+        metrics.gauge("simplemctiers_upstream_circuit_open",
+                () -> breaker.state() == CircuitBreaker.State.CLOSED ? 0 : 1, "upstream", host);
+        return new HttpFetcher.Endpoint(
+                host,
+                limiter,
+                breaker,
+                Duration.ofMillis(getConfig().getLong(p + "timeout", timeoutMs)),
+                getConfig().getInt(p + "retries", 2),
+                getConfig().getLong(p + "backoff", 250)
+        );
+    }
+
+    // Aged profiles are reloaded at a budget per upstream, online players first
+    private void startRefresher() {
+        double burst = Math.max(1, getConfig().getDouble("refresh.burst", 5));
+        RefreshScheduler refresher = new RefreshScheduler(tiers, identities, resolver::trackedNames,
+                mctiersApi.limiter(), new RefreshScheduler.Budget(getConfig().getDouble("refresh.mctiers-per-second", 0.5), burst),
+                mojangApi.limiter(), new RefreshScheduler.Budget(getConfig().getDouble("refresh.mojang-per-second", 0.2), burst),
+                getConfig().getLong("refresh.recent-seconds", 600), metrics);
+        tiers.refreshVia(refresher);
+        maintenance.scheduleWithFixedDelay(refresher::tick, 1, 1, TimeUnit.SECONDS);
+    }
+
+    private void startMetricsServer() {
+        if (!getConfig().getBoolean("metrics.prometheus.enabled", false)) return;
+        String host = getConfig().getString("metrics.prometheus.host", "127.0.0.1");
+        int port = getConfig().getInt("metrics.prometheus.port", 9464);
+        try {
+            metricsServer = new MetricsServer(metrics, host, port);
+            getLogger().info("Prometheus metrics on http://" + host + ":" + port + "/metrics");
+        } catch (IOException e) {
+            getLogger().warning("Could not start the metrics endpoint on " + host + ":" + port + ": " + e.getMessage());
+        }
+    }
+
     @Override
     public void onDisable() {
         getLogger().info("SimpleMCTiers has been disabled");
-        cache.clear();
-        vanillaCache.clear();
-        if (connection != null) try { connection.close(); } catch (SQLException ignored) {}
+        getServer().getServicesManager().unregisterAll(this);
+        if (metricsServer != null) metricsServer.shutdown();
+        if (resolver != null) resolver.shutdown();
+        if (prefetcher != null) prefetcher.shutdown();
+        if (vanillaList != null) vanillaList.shutdown();
+        if (maintenance != null) maintenance.shutdownNow();
+        if (scheduler != null) scheduler.shutdown();
+        if (snapshot != null) saveSnapshot();
+        if (cache != null) cache.clear();
+        if (overrides != null) overrides.shutdown();
+        if (database != null) database.close();
+    }
+
+    private void saveSnapshot() {
+        snapshot.save(cache, identities);
     }
 
     // ------------------------------------------------------------------------
     // Database Setup
     // ------------------------------------------------------------------------
     private void setupDatabase() {
+        // this server's name in the shared change log; a new one per start is enough
+        String origin = getConfig().getBoolean("database.network.enabled", false) ? UUID.randomUUID().toString() : null;
+        int connections = getConfig().getInt("database.read-connections", 2);
+        String type = getConfig().getString("database.type", "sqlite").toLowerCase(Locale.ROOT);
         try {
-            File db = new File(getDataFolder(), "overrides.db");
-            String url = "jdbc:sqlite:" + db.getAbsolutePath();
-            connection = DriverManager.getConnection(url);
-            try (Statement st = connection.createStatement()) {
-                st.executeUpdate("""
-                    CREATE TABLE IF NOT EXISTS overrides (
-                        username TEXT NOT NULL,
-                        gamemode TEXT,
-                        tier INTEGER,
-                        combatrank TEXT,
-                        points INTEGER,
-                        PRIMARY KEY(username, gamemode)
-                    )
-                """);
+            database = switch (type) {
+                case "sqlite" -> OverrideDatabase.sqlite(
+                        sqliteFile(getConfig().getString("database.file", "overrides.db")),
+                        connections,
+                        getConfig().getInt("database.busy-timeout", 5000),
+                        getConfig().getString("database.synchronous", "NORMAL").toUpperCase(Locale.ROOT),
+                        origin
+                );
+                case "mysql", "mariadb" -> OverrideDatabase.mysql(
+                        getConfig().getString("database.mysql.url", "jdbc:mysql://localhost:3306/simplemctiers"),
+                        getConfig().getString("database.mysql.username", "root"),
+                        getConfig().getString("database.mysql.password", ""),
+                        connections,
+                        origin
+                );
+                default -> throw new SQLException("Unknown database.type: " + type);
+            };
+            overrides = new OverrideStore(database, getLogger(), metrics);
+            if (database.shared()) {
+                network = new NetworkSync(database, overrides, getLogger(), metrics);
+                network.start();
             }
+            overrides.load();
         } catch (SQLException e) {
-            getLogger().severe("DB setup failed: " + e.getMessage());
+            getLogger().severe("DB setup failed, overrides are disabled until the next start: " + e.getMessage());
+            if (database != null) database.close();
+            database = null;
+            network = null;
+            // an empty in-memory store, so everything that reads overrides keeps working
+            overrides = new OverrideStore(null, getLogger(), metrics);
         }
     }
 
+    // Relative to the plugin folder unless absolute (servers sharing one file)
+    private File sqliteFile(String path) {
+        File file = new File(path);
+        return file.isAbsolute() ? file : new File(getDataFolder(), path);
+    }
+
+    // One mctiers.com fetch per player for the whole network, and other servers' edits applied here
+    private void startNetworkSync() {
+        if (network == null) return;
+        SharedTierCache shared = new SharedTierCache(
+                database,
+                getConfig().getLong("cache.refresh-after", 900) * 1000L,
+                getConfig().getLong("cache.negative-ttl", 300) * 1000L,
+                getConfig().getLong("cache.ttl", 3600) * 1000L,
+                getConfig().getLong("database.network.fetch-lease", 10) * 1000L,
+                getLogger(),
+                metrics
+        );
+        tiers.share(shared);
+        network.onTier(name -> {
+            tiers.adopt(name);
+            resolver.refreshByName(name);
+        });
+        network.onOverrides(name -> {
+            if (name.equals(OverrideStore.ALL)) {
+                leaderboard.rebuild();
+                resolver.refreshAll();
+            } else {
+                leaderboard.update(name);
+                resolver.refreshByName(name);
+            }
+        });
+        long interval = Math.max(1, getConfig().getLong("database.network.poll-interval", 2));
+        maintenance.scheduleWithFixedDelay(network::poll, interval, interval, TimeUnit.SECONDS);
+        maintenance.scheduleWithFixedDelay(shared::prune, 5, 5, TimeUnit.MINUTES);
+    }
+
     // ------------------------------------------------------------------------
     // Commands
     // ------------------------------------------------------------------------
@@ -115,99 +407,236 @@ public final class SimpleMCTiers extends JavaPlugin implements TabExecutor {
     }
 
     private boolean handleTier(CommandSender sender, String[] args) {
+        if (args.length >= 2 && args.length <= 3 && args[0].equalsIgnoreCase("top")) {
+            return handleTop(sender, args);
+        }
         if (args.length != 2) {
-            sender.sendMessage(PREFIX + ChatColor.RED + "Usage: /tier <player> <gamemode>");
+            sender.sendMessage(PREFIX + ChatColor.RED + "Usage: /tier <player> <gamemode> | /tier top <gamemode> [page]");
             return false;
         }
-        String user = capitalize(args[0]);
+        String user = TierFormatter.capitalize(args[0]);
         String mode = args[1].toLowerCase(Locale.ROOT);
         if (!GAMEMODES.contains(mode)) {
             sender.sendMessage(PREFIX + ChatColor.RED + "Unknown gamemode.");
             return false;
         }
-        // Use Folia-compatible scheduler with fallback
-        runAsyncTask(() -> {
-            try {
-                String json = fetchTierData(user);
-                sender.sendMessage(formatSingleTier(json, user, mode));
-            } catch (IOException e) {
-                sender.sendMessage(PREFIX + ChatColor.RED + "Error fetching tier data.");
+        // every source is asked at once; slow ones are bounded by their deadlines
+        chain.lookup(user).thenAccept(r -> {
+            TierChain.Answer answer = r.get(Gamemode.of(mode));
+            if (answer.source() == null && r.degraded()) {
+                scheduler.send(sender, PREFIX + ChatColor.RED + "Error fetching tier data.");
+            } else {
+                scheduler.send(sender, formatter.singleTier(answer, user, mode));
             }
         });
         return true;
     }
 
+    private boolean handleTop(CommandSender sender, String[] args) {
+        Gamemode mode = Gamemode.of(args[1].toLowerCase(Locale.ROOT));
+        if (mode == null) {
+            sender.sendMessage(PREFIX + ChatColor.RED + "Unknown gamemode.");
+            return false;
+        }
+        int page;
+        try {
+            page = args.length == 3 ? Integer.parseInt(args[2]) : 1;
+        } catch (NumberFormatException e) {
+            page = 0;
+        }
+        int pages = Math.max(1, (leaderboard.size(mode) + TOP_PAGE_SIZE - 1) / TOP_PAGE_SIZE);
+        if (page < 1 || page > pages) {
+            sender.sendMessage(PREFIX + ChatColor.RED + "Page must be between 1 and " + pages + ".");
+            return true;
+        }
+        sender.sendMessage(PREFIX + ChatColor.GREEN + "Top " + TierFormatter.capitalize(mode.id())
+                + ChatColor.GRAY + " (page " + page + "/" + pages + ")");
+        int rank = (page - 1) * TOP_PAGE_SIZE;
+        for (Leaderboard.Entry e : leaderboard.page(mode, page, TOP_PAGE_SIZE)) {
+            sender.sendMessage(ChatColor.GRAY + "#" + (++rank) + " " + ChatColor.WHITE + e.name()
+                    + " " + ChatColor.AQUA + e.tierCode());
+        }
+        return true;
+    }
+
     private boolean handleAdmin(CommandSender sender, String[] args) {
         if (!sender.hasPermission("simplemctiers.admin")) {
             sender.sendMessage(ChatColor.RED + "You lack permission.");
             return true;
         }
+        if (args.length == 1 && args[0].equalsIgnoreCase("stats")) {
+            sender.sendMessage(PREFIX + ChatColor.GREEN + "Statistics:");
+            for (String line : metrics.summary()) sender.sendMessage(ChatColor.GRAY + " " + line);
+            return true;
+        }
+        if (database == null) {
+            sender.sendMessage(PREFIX + ChatColor.RED + "Overrides are disabled: the database could not be opened (see the server log).");
+            return true;
+        }
+        if (args.length == 2 && (args[0].equalsIgnoreCase("import") || args[0].equalsIgnoreCase("export"))) {
+            return handleTransfer(sender, args[0].toLowerCase(Locale.ROOT), args[1]);
+        }
         if (args.length < 2) {
-            sender.sendMessage(PREFIX + ChatColor.RED + "Usage: /simplemctiers <settier|setcombatrank|setpoints|reset> ...");
+            sender.sendMessage(PREFIX + ChatColor.RED + "Usage: /simplemctiers <settier|setcombatrank|setpoints|reset|stats|import|export> ...");
             return false;
         }
         String sub = args[0].toLowerCase();
-        String user = capitalize(args[1]);
-        try {
-            switch (sub) {
-                case "settier" -> {
-                    if (args.length != 4) throw new IllegalArgumentException("Usage: settier <player> <gamemode> <HT/LT#>");
-                    String mode = args[2].toLowerCase(Locale.ROOT);
-                    String code = args[3].toUpperCase();
-                    if (!GAMEMODES.contains(mode)) throw new IllegalArgumentException("Unknown gamemode.");
-                    if (!code.matches("H[Tt]\\d+|L[Tt]\\d+")) throw new IllegalArgumentException("Tier must be HT# or LT#");
-                    int tierVal = Integer.parseInt(code.substring(2));
-                    // store tier
-                    upsertOverride(user, mode, tierVal, null, null);
-                    // recalc and store combatrank based on current points
-                    recalcCombatRank(user);
-                    sender.sendMessage(PREFIX + "Set tier override: " + user + " #" + code + " in " + mode);
-                }
-                case "setcombatrank" -> {
-                    if (args.length != 3) throw new IllegalArgumentException("Usage: setcombatrank <player> <rank>");
-                    String rank = args[2].toUpperCase(Locale.ROOT);
-                    if (!COMBATRANKS.contains(rank)) throw new IllegalArgumentException("Invalid rank.");
-                    upsertOverride(user, null, null, rank, null);
-                    sender.sendMessage(PREFIX + "Set Combat Rank override: " + user + " → " + rank);
-                }
-                case "setpoints" -> {
-                    if (args.length != 3) throw new IllegalArgumentException("Usage: setpoints <player> <points>");
-                    int pts = Integer.parseInt(args[2]);
-                    upsertOverride(user, null, null, null, pts);
-                    recalcCombatRank(user);
-                    sender.sendMessage(PREFIX + "Set points override: " + user + " → " + pts);
-                }
-                case "reset" -> {
-                    if (args.length != 2) throw new IllegalArgumentException("Usage: reset <player>");
-                    deleteOverride(user);
-                    sender.sendMessage(PREFIX + "Reset all overrides for " + user);
+        String user = TierFormatter.capitalize(args[1]);
+        // settier / setpoints may fetch the player's points from mctiers.com
+        runIo(sender, () -> {
+            List<CompletableFuture<Void>> writes = new ArrayList<>();
+            try {
+                switch (sub) {
+                    case "settier" -> {
+                        if (args.length != 4) throw new IllegalArgumentException("Usage: settier <player> <gamemode> <HT/LT#>");
+                        String mode = args[2].toLowerCase(Locale.ROOT);
+                        String code = args[3].toUpperCase();
+                        if (!GAMEMODES.contains(mode)) throw new IllegalArgumentException("Unknown gamemode.");
+                        if (!code.matches("H[Tt]\\d+|L[Tt]\\d+")) throw new IllegalArgumentException("Tier must be HT# or LT#");
+                        int tierVal = Integer.parseInt(code.substring(2));
+                        // store tier
+                        writes.add(upsertOverride(user, mode, tierVal, null, null));
+                        // recalc and store combatrank based on current points
+                        writes.add(recalcCombatRank(user));
+                        scheduler.send(sender, PREFIX + "Set tier override: " + user + " #" + code + " in " + mode);
+                    }
+                    case "setcombatrank" -> {
+                        if (args.length != 3) throw new IllegalArgumentException("Usage: setcombatrank <player> <rank>");
+                        String rank = args[2].toUpperCase(Locale.ROOT);
+                        if (!TierFormatter.RANKS.contains(rank)) throw new IllegalArgumentException("Invalid rank.");
+                        writes.add(upsertOverride(user, null, null, rank, null));
+                        scheduler.send(sender, PREFIX + "Set Combat Rank override: " + user + " → " + rank);
+                    }
+                    case "setpoints" -> {
+                        if (args.length != 3) throw new IllegalArgumentException("Usage: setpoints <player> <points>");
+                        int pts = Integer.parseInt(args[2]);
+                        writes.add(upsertOverride(user, null, null, null, pts));
+                        writes.add(recalcCombatRank(user));
+                        scheduler.send(sender, PREFIX + "Set points override: " + user + " → " + pts);
+                    }
+                    case "reset" -> {
+                        if (args.length != 2) throw new IllegalArgumentException("Usage: reset <player>");
+                        writes.add(deleteOverride(user));
+                        scheduler.send(sender, PREFIX + "Reset all overrides for " + user);
+                    }
+                    default -> throw new IllegalArgumentException("Unknown subcommand.");
                 }
-                default -> throw new IllegalArgumentException("Unknown subcommand.");
+                leaderboard.update(user);
+                resolver.refreshByName(user);
+            } catch (Exception e) {
+                scheduler.send(sender, PREFIX + ChatColor.RED + e.getMessage());
             }
-        } catch (Exception e) {
-            sender.sendMessage(PREFIX + ChatColor.RED + e.getMessage());
+            reportWriteFailure(sender, writes);
+        });
+        return true;
+    }
+
+    // The change is live in memory either way; say so when the database did not take it
+    private void reportWriteFailure(CommandSender sender, List<CompletableFuture<Void>> writes) {
+        CompletableFuture.allOf(writes.toArray(new CompletableFuture[0])).whenComplete((v, e) -> {
+            if (e == null) return;
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            scheduler.send(sender, PREFIX + ChatColor.RED + "Could not save the change to the database ("
+                    + cause.getMessage() + "); it is applied here and will be retried until the database is back.");
+        });
+    }
+
+    // import/export <file> relative to the data folder; runs off the main thread
+    private boolean handleTransfer(CommandSender sender, String sub, String path) {
+        File file;
+        try {
+            File root = getDataFolder().getCanonicalFile();
+            file = new File(root, path).getCanonicalFile();
+            if (!file.toPath().startsWith(root.toPath())) throw new IOException("outside the plugin folder");
+        } catch (IOException e) {
+            sender.sendMessage(PREFIX + ChatColor.RED + "Invalid file: " + e.getMessage());
+            return true;
         }
+        if (!OverrideTransfer.supported(file)) {
+            sender.sendMessage(PREFIX + ChatColor.RED + "File must end in .csv or .json");
+            return true;
+        }
+        if (sub.equals("import") && !file.isFile()) {
+            sender.sendMessage(PREFIX + ChatColor.RED + "No such file: " + path);
+            return true;
+        }
+        sender.sendMessage(PREFIX + (sub.equals("import") ? "Importing " : "Exporting to ") + file.getName() + "...");
+        OverrideTransfer transfer = new OverrideTransfer(overrides);
+        runIo(sender, () -> {
+            try {
+                if (sub.equals("export")) {
+                    int n = transfer.exportFile(file);
+                    scheduler.send(sender, PREFIX + ChatColor.GREEN + "Exported " + n + " overrides to " + file.getName());
+                    return;
+                }
+                OverrideTransfer.Result r = transfer.importFile(file,
+                        n -> scheduler.send(sender, PREFIX + ChatColor.GRAY + "Read " + n + " rows..."),
+                        n -> scheduler.send(sender, PREFIX + ChatColor.GRAY + "Staged " + n + " rows..."));
+                // one in-memory refresh for the whole file
+                leaderboard.rebuild();
+                resolver.refreshAll();
+                scheduler.send(sender, PREFIX + ChatColor.GREEN + "Imported " + r.rows() + " overrides"
+                        + (r.skipped() > 0 ? ChatColor.YELLOW + " (" + r.skipped() + " invalid rows skipped)" : ""));
+            } catch (IOException | RuntimeException e) {
+                scheduler.send(sender, PREFIX + ChatColor.RED + "Failed to " + sub + " " + file.getName() + ": " + e.getMessage());
+            }
+        });
         return true;
     }
 
+    // ------------------------------------------------------------------------
+    // Player Events
+    // ------------------------------------------------------------------------
+    // Runs off the main thread while the player is still logging in: warm the caches early
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent e) {
+        if (e.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) return;
+        identities.remember(e.getUniqueId(), e.getName());
+        prefetcher.submit(e.getName());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onJoin(PlayerJoinEvent e) {
+        identities.remember(e.getPlayer().getUniqueId(), e.getPlayer().getName());
+        knownNames.add(e.getPlayer().getName());
+        resolver.track(e.getPlayer().getUniqueId(), e.getPlayer().getName());
+        if (eloTags != null) eloTags.update(e.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent e) {
+        resolver.untrack(e.getPlayer().getUniqueId());
+        if (eloTags != null) eloTags.forget(e.getPlayer().getUniqueId());
+        tiers.evictIfStale(e.getPlayer().getName());
+    }
+
     // ------------------------------------------------------------------------
     // Tab Completion
     // ------------------------------------------------------------------------
     @Override
     public @Nullable List<String> onTabComplete(CommandSender s, Command cmd, String alias, String[] args) {
         if (cmd.getName().equalsIgnoreCase("tier")) {
-            if (args.length == 1) return suggestPlayers(args[0]);
+            if (args.length == 1) {
+                List<String> out = suggestPlayers(args[0]);
+                out.addAll(suggestList(List.of("top"), args[0]));
+                return out;
+            }
             if (args.length == 2) return suggestList(GAMEMODES, args[1]);
         } else {
             if (args.length == 1) return suggestList(
-                    List.of("settier","setcombatrank","setpoints","reset"), args[0]
+                    List.of("settier","setcombatrank","setpoints","reset","stats","import","export"), args[0]
             );
+            if (args.length == 2 && args[0].equalsIgnoreCase("import")) {
+                String[] files = getDataFolder().list((dir, n) -> n.endsWith(".csv") || n.endsWith(".json"));
+                return suggestList(files != null ? Arrays.asList(files) : List.of(), args[1]);
+            }
+            if (args.length == 2 && args[0].equalsIgnoreCase("export")) return Collections.emptyList();
             if (args.length == 2) return suggestPlayers(args[1]);
             if (args.length == 3) {
                 if (args[0].equalsIgnoreCase("settier"))
                     return suggestList(GAMEMODES, args[2]);
                 if (args[0].equalsIgnoreCase("setcombatrank"))
-                    return suggestList(COMBATRANKS, args[2]);
+                    return suggestList(TierFormatter.RANKS, args[2]);
             }
             if (args.length == 4 && args[0].equalsIgnoreCase("settier")) {
                 // HT1..HT10 + LT1..LT10
@@ -222,11 +651,14 @@ public final class SimpleMCTiers extends JavaPlugin implements TabExecutor {
         return Collections.emptyList();
     }
 
+    // Online players for an empty prefix, else any known name; capped either way
     private List<String> suggestPlayers(String prefix) {
-        String low = prefix.toLowerCase(Locale.ROOT);
+        if (!prefix.isEmpty()) return knownNames.startingWith(prefix, suggestionLimit);
         var out = new ArrayList<String>();
-        for (Player p : Bukkit.getOnlinePlayers())
-            if (p.getName().toLowerCase().startsWith(low)) out.add(p.getName());
+        for (Player p : Bukkit.getOnlinePlayers()) {
+            if (out.size() >= suggestionLimit) break;
+            out.add(p.getName());
+        }
         return out;
     }
     private List<String> suggestList(List<String> list, String prefix) {
@@ -238,195 +670,59 @@ public final class SimpleMCTiers extends JavaPlugin implements TabExecutor {
     }
 
     // ------------------------------------------------------------------------
-    // Overrides DB Helpers
+    // Overrides Helpers (in-memory, see OverrideStore)
     // ------------------------------------------------------------------------
-    private void upsertOverride(String user, String mode, Integer tier,
-                                String combatrank, Integer points) throws SQLException {
-        // read existing
-        Integer curTier = null; String curRank = null; Integer curPts = null;
-        try (PreparedStatement sel = connection.prepareStatement(
-                "SELECT tier, combatrank, points FROM overrides WHERE username=? AND gamemode IS ?"
-        )) {
-            sel.setString(1, user);
-            sel.setString(2, mode);
-            ResultSet rs = sel.executeQuery();
-            if (rs.next()) {
-                curTier = rs.getInt("tier");
-                curRank= rs.getString("combatrank");
-                curPts  = rs.getInt("points");
-            }
-        }
-        curTier = (tier   != null)? tier   : curTier;
-        curRank = (combatrank!=null)? combatrank:curRank;
-        curPts  = (points != null)? points : curPts;
-
-        try (PreparedStatement up = connection.prepareStatement(
-                "REPLACE INTO overrides(username,gamemode,tier,combatrank,points) VALUES(?,?,?,?,?)"
-        )) {
-            up.setString(1, user);
-            up.setString(2, mode);
-            if (curTier   != null) up.setInt(3, curTier);   else up.setNull(3,Types.INTEGER);
-            if (curRank   != null) up.setString(4, curRank); else up.setNull(4,Types.VARCHAR);
-            if (curPts    != null) up.setInt(5, curPts);    else up.setNull(5,Types.INTEGER);
-            up.executeUpdate();
-        }
+    private CompletableFuture<Void> upsertOverride(String user, String mode, Integer tier,
+                                                   String combatrank, Integer points) {
+        return overrides.upsert(user, mode, tier, combatrank, points);
     }
 
-    private void deleteOverride(String user) throws SQLException {
-        try (PreparedStatement d = connection.prepareStatement(
-                "DELETE FROM overrides WHERE username=?"
-        )) {
-            d.setString(1, user);
-            d.executeUpdate();
-        }
+    private CompletableFuture<Void> deleteOverride(String user) {
+        return overrides.delete(user);
     }
 
     private Integer getOverridePoints(String user) {
-        try (PreparedStatement q = connection.prepareStatement(
-                "SELECT points FROM overrides WHERE username=? AND gamemode IS NULL"
-        )) {
-            q.setString(1, user);
-            ResultSet rs = q.executeQuery();
-            if (rs.next()) return rs.getInt("points");
-        } catch (SQLException ignored) {}
-        return null;
-    }
-
-    private String getOverrideCombatRank(String user) {
-        try (PreparedStatement q = connection.prepareStatement(
-                "SELECT combatrank FROM overrides WHERE username=? AND gamemode IS NULL"
-        )) {
-            q.setString(1, user);
-            ResultSet rs = q.executeQuery();
-            if (rs.next()) return rs.getString("combatrank");
-        } catch (SQLException ignored) {}
-        return null;
+        return overrides.points(user);
     }
 
     // ------------------------------------------------------------------------
     // Combat Rank Recalc Helper
     // ------------------------------------------------------------------------
-    private void recalcCombatRank(String user) throws Exception {
+    private CompletableFuture<Void> recalcCombatRank(String user) throws Exception {
         // get points override or from API
         Integer ptsO = getOverridePoints(user);
-        int pts = (ptsO != null) ? ptsO : JsonParser
-                .parseString(fetchTierData(user))
-                .getAsJsonObject()
-                .get("points").getAsInt();
+        int pts = (ptsO != null) ? ptsO : tiers.fetch(user).points();
 
-        String rank;
-        if (pts >= 100) rank="S";
-        else if (pts >= 50) rank="X";
-        else if (pts >= 25) rank="V";
-        else if (pts >= 15) rank="IV";
-        else if (pts >= 10) rank="III";
-        else if (pts >= 5)  rank="II";
-        else if (pts >= 1)  rank="I";
-        else rank = null;
-
-        upsertOverride(user, null, null, rank, ptsO);
+        String rank = TierFormatter.rankFor(pts);
+        return upsertOverride(user, null, null, rank, ptsO);
     }
 
     // ------------------------------------------------------------------------
-    // Data Fetching & Formatting
+    // Placeholder Snapshot Builder (runs on resolver workers, never on a tick)
     // ------------------------------------------------------------------------
-    private boolean isValidMinecraftUsername(String playerName) throws IOException {
-        URL url = new URL(MOJANG_API_URL + playerName);
-        HttpURLConnection conn = (HttpURLConnection)url.openConnection();
-        conn.setRequestMethod("GET");
-        if (conn.getResponseCode() != 200) return false;
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-            String line = r.readLine();
-            return line != null && !line.isEmpty();
+    private PlaceholderResolver.Built resolvePlaceholders(String user) {
+        TierChain.Result result = chain.lookup(user).join();
+        TierRecord rec = tiers.peek(user);
+        // a stale record is one mctiers.com failed to refresh, so it is no more final than a late one
+        boolean complete = !result.degraded() && (rec == null || tiers.isCached(user));
+        return new PlaceholderResolver.Built(formatter.placeholders(user, result, rec), formatter.state(user, result, rec), complete);
+    }
+
+    // TierChangeEvent per changed value; called on the resolver thread that noticed
+    private void fireTierChanges(PlaceholderResolver.Changed changed) {
+        Player p = Bukkit.getPlayer(changed.id());
+        if (p == null) return;
+        for (TierState.Change c : changed.changes()) {
+            Bukkit.getPluginManager().callEvent(new TierChangeEvent(p, c.kind(), c.mode(), c.before(), c.after(), c.source()));
         }
     }
 
-    private String fetchTierData(String playerName) throws IOException {
-        if (cache.containsKey(playerName)) return cache.get(playerName);
-        if (!isValidMinecraftUsername(playerName)) return createErrorResponse(playerName);
-
-        URL url = new URL(MCTIERS_API_URL + playerName);
-        HttpURLConnection conn = (HttpURLConnection)url.openConnection();
-        conn.setRequestMethod("GET");
-        if (conn.getResponseCode() == 404) return createErrorResponse(playerName);
-        if (conn.getResponseCode() != 200) return ChatColor.RED+"Error";
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-            StringBuilder sb = new StringBuilder(); String line;
-            while ((line = r.readLine()) != null) sb.append(line);
-            JsonObject json = JsonParser.parseString(sb.toString()).getAsJsonObject();
-            if (!json.has("name")) return createErrorResponse(playerName);
-            cache.put(playerName, sb.toString());
-            return sb.toString();
-        }
-    }
-
-    private String createErrorResponse(String playerName) {
-        JsonObject err = new JsonObject();
-        err.addProperty("name", playerName);
-        err.addProperty("region", "N/A");
-        err.add("rankings", new JsonObject());
-        err.addProperty("points", 0);
-        return err.toString();
-    }
-
-    private String formatSingleTier(String jsonResponse, String playerName, String gamemode) {
-        JsonObject json = JsonParser.parseString(jsonResponse).getAsJsonObject();
-        StringBuilder out = new StringBuilder(PREFIX);
-        Integer oT = null;
-        // override tier?
-        try {
-            PreparedStatement q = connection.prepareStatement(
-                    "SELECT tier FROM overrides WHERE username=? AND gamemode=?"
-            );
-            q.setString(1, playerName);
-            q.setString(2, gamemode);
-            ResultSet rs = q.executeQuery();
-            if (rs.next()) oT = rs.getInt("tier");
-        } catch (SQLException ignored) {}
-
-        if (oT != null) {
-            out.append(ChatColor.GREEN).append(playerName).append("'s ")
-                    .append(capitalize(gamemode)).append(" Tier: ")
-                    .append(ChatColor.AQUA).append(oT);
-            return out.toString();
-        }
-
-        JsonObject ranks = json.getAsJsonObject("rankings");
-        if (ranks != null && ranks.has(gamemode)) {
-            JsonObject r = ranks.getAsJsonObject(gamemode);
-            int tier = r.get("tier").getAsInt();
-            int pos  = r.get("pos").getAsInt();
-            String ts = (pos==0?"HT":"LT")+tier;
-            out.append(ChatColor.GREEN).append(playerName).append("'s ")
-                    .append(capitalize(gamemode)).append(" Tier: ")
-                    .append(ChatColor.AQUA).append(ts);
-        } else {
-            // NEW: VanillaList fallback
-            String vanillaTier = getVanillaListTier(playerName, gamemode);
-            if (vanillaTier != null) {
-                out.append(ChatColor.GREEN).append(playerName).append("'s ")
-                        .append(capitalize(gamemode)).append(" Tier (VNL): ")
-                        .append(ChatColor.AQUA).append(vanillaTier);
-            } else {
-                // No tier found in mctiers.com or VanillaList, try ELO-based fallback
-                String eloTier = getEloBasedTier(playerName);
-                if (eloTier != null) {
-                    out.append(ChatColor.GREEN).append(playerName).append("'s ")
-                            .append(capitalize(gamemode)).append(" Tier (ELO): ")
-                            .append(eloTier);
-                } else {
-                    out.append(ChatColor.RED).append("N/A");
-                }
-            }
-        }
-        return out.toString();
-    }
-
     // ------------------------------------------------------------------------
-    // PlaceholderAPI (original expansions restored)
+    // PlaceholderAPI (read-only views over the resolver snapshot)
     // ------------------------------------------------------------------------
     public class TierPlaceholderExpansion extends PlaceholderExpansion {
         private final SimpleMCTiers plugin;
+        private final Metrics.Histogram latency = metrics.histogram("simplemctiers_placeholder_seconds", "identifier", "tier");
         public TierPlaceholderExpansion(SimpleMCTiers plugin){this.plugin=plugin;}
         @NotNull @Override public String getIdentifier(){return "tier";}
         @NotNull @Override public String getAuthor(){return plugin.getDescription().getAuthors().toString();}
@@ -435,15 +731,27 @@ public final class SimpleMCTiers extends JavaPlugin implements TabExecutor {
         @Override public boolean canRegister(){return true;}
         @Nullable @Override
         public String onPlaceholderRequest(Player p,@NotNull String params){
-            return formatSingleTierQuiet(p.getName(),params);
-        }
-        private String formatSingleTierQuiet(String u,String m){
-            try {return plugin.formatSingleTier(plugin.fetchTierData(u),u,m);} catch(Exception e){return ChatColor.RED+"N/A";}
+            if (p == null) return null;
+            long start = System.nanoTime();
+            try {
+                String key = params.toLowerCase(Locale.ROOT);
+                if (key.startsWith("pos_")) {
+                    // %tier_pos_<gamemode>%: straight from the leaderboard, always current
+                    Gamemode mode = Gamemode.of(key.substring(4));
+                    if (mode == null) return null;
+                    Integer pos = leaderboard.position(p.getName(), mode);
+                    return pos != null ? String.valueOf(pos) : ChatColor.RED + "N/A";
+                }
+                return resolver.get(p.getUniqueId(), p.getName(), "tier_" + key, ChatColor.RED + "N/A");
+            } finally {
+                latency.since(start);
+            }
         }
     }
 
     public class CombatRankPlaceholderExpansion extends PlaceholderExpansion {
         private final SimpleMCTiers plugin;
+        private final Metrics.Histogram latency = metrics.histogram("simplemctiers_placeholder_seconds", "identifier", "combatrank");
         public CombatRankPlaceholderExpansion(SimpleMCTiers plugin){this.plugin=plugin;}
         @NotNull @Override public String getIdentifier(){return "combatrank";}
         @NotNull @Override public String getAuthor(){return plugin.getDescription().getAuthors().toString();}
@@ -452,28 +760,19 @@ public final class SimpleMCTiers extends JavaPlugin implements TabExecutor {
         @Override public boolean canRegister(){return true;}
         @Nullable @Override
         public String onPlaceholderRequest(Player p,@NotNull String params){
-            if (!params.equalsIgnoreCase("overall")) return null;
-            String u = p.getName();
-            String or = getOverrideCombatRank(u);
-            if (or != null) return or;
-            int pts; Integer oP = getOverridePoints(u);
-            if (oP!=null) pts=oP; else {
-                try { pts = JsonParser.parseString(fetchTierData(u)).getAsJsonObject().get("points").getAsInt(); }
-                catch(Exception e){return ChatColor.RED+"N/A";}
+            if (p == null || !params.equalsIgnoreCase("overall")) return null;
+            long start = System.nanoTime();
+            try {
+                return resolver.get(p.getUniqueId(), p.getName(), "combatrank_overall", ChatColor.RED + "N/A");
+            } finally {
+                latency.since(start);
             }
-            if (pts >= 100) return ChatColor.YELLOW + "S";
-            if (pts >= 50)  return ChatColor.RED + "X";
-            if (pts >= 25)  return ChatColor.LIGHT_PURPLE + "V";
-            if (pts >= 15)  return ChatColor.GRAY + "IV";
-            if (pts >= 10)  return ChatColor.GRAY + "III";
-            if (pts >= 5)   return ChatColor.GRAY + "II";
-            if (pts >= 1)   return ChatColor.DARK_GRAY + "I";
-            return ChatColor.RED + "N/A";
         }
     }
 
     public class EloTierPlaceholderExpansion extends PlaceholderExpansion {
         private final SimpleMCTiers plugin;
+        private final Metrics.Histogram latency = metrics.histogram("simplemctiers_placeholder_seconds", "identifier", "tiertag");
         public EloTierPlaceholderExpansion(SimpleMCTiers plugin){this.plugin=plugin;}
         @NotNull @Override public String getIdentifier(){return "tiertag";}
         @NotNull @Override public String getAuthor(){return plugin.getDescription().getAuthors().toString();}
@@ -482,15 +781,23 @@ public final class SimpleMCTiers extends JavaPlugin implements TabExecutor {
         @Override public boolean canRegister(){return true;}
         @Nullable @Override
         public String onPlaceholderRequest(Player p,@NotNull String params){
-            if (!params.equalsIgnoreCase("tier")) return null;
-            String eloTier = getEloBasedTier(p.getName());
-            return eloTier != null ? eloTier : ChatColor.RED + "N/A";
+            if (p == null || !params.equalsIgnoreCase("tier")) return null;
+            long start = System.nanoTime();
+            try {
+                // the ELO plugin's tag when there is one, else the combat rank for mctiers.com points
+                String tag = eloTags != null ? eloTags.tag(p.getUniqueId()) : null;
+                if (tag != null) return tag;
+                return resolver.get(p.getUniqueId(), p.getName(), "tiertag_tier", ChatColor.RED + "N/A");
+            } finally {
+                latency.since(start);
+            }
         }
     }
 
     // NEW: VanillaList placeholder expansion for %vntier_<gamemode>%
     public class VanillaListPlaceholderExpansion extends PlaceholderExpansion {
         private final SimpleMCTiers plugin;
+        private final Metrics.Histogram latency = metrics.histogram("simplemctiers_placeholder_seconds", "identifier", "vntier");
         public VanillaListPlaceholderExpansion(SimpleMCTiers plugin){this.plugin=plugin;}
         @NotNull @Override public String getIdentifier(){return "vntier";}
         @NotNull @Override public String getAuthor(){return plugin.getDescription().getAuthors().toString();}
@@ -499,180 +806,25 @@ public final class SimpleMCTiers extends JavaPlugin implements TabExecutor {
         @Override public boolean canRegister(){return true;}
         @Nullable @Override
         public String onPlaceholderRequest(Player p,@NotNull String params){
-            String mode = params.toLowerCase(Locale.ROOT);
-            if (!GAMEMODES.contains(mode)) return ChatColor.RED + "N/A";
-            String tier = getVanillaListTier(p.getName(), mode);
-            if (tier != null) return ChatColor.AQUA + tier;
-            // attempt live fetch again if not cached
-            vanillaCache.remove(p.getName());
-            tier = getVanillaListTier(p.getName(), mode);
-            return tier != null ? ChatColor.AQUA + tier : ChatColor.RED + "N/A";
-        }
-    }
-
-    // ------------------------------------------------------------------------
-    // VanillaList Parsing / Fallback
-    // ------------------------------------------------------------------------
-    private String getVanillaListTier(String playerName, String gamemode) {
-        try {
-            Map<String,String> tiers = vanillaCache.get(playerName);
-            if (tiers == null) {
-                tiers = fetchAndParseVanillaList(playerName);
-                if (tiers != null) vanillaCache.put(playerName, tiers);
-            }
-            if (tiers == null) return null;
-            // normalize gamemode mapping differences
-            String key = gamemode.toLowerCase(Locale.ROOT);
-            return tiers.getOrDefault(key, null);
-        } catch (Exception e) {
-            return null;
-        }
-    }
-
-    private Map<String,String> fetchAndParseVanillaList(String playerName) throws IOException {
-        String html = fetchVanillaListLive();
-        if (html == null) html = fetchVanillaListDownloadedFile(); // new intermediate layer
-        if (html == null) html = readVanillaListCached();
-        if (html == null) return null;
-        // Case-insensitive search for player row
-        Pattern rowPattern = Pattern.compile("<tr[^>]*>\\s*<td>\\d+</td>\\s*<td[^>]*>.*?data-name=\"" + Pattern.quote(playerName) + "\"[\\s\\S]*?</tr>", Pattern.CASE_INSENSITIVE);
-        Matcher rowMatcher = rowPattern.matcher(html);
-        if (!rowMatcher.find()) return null;
-        String rowHtml = rowMatcher.group();
-        // Extract each mode container: src ends with /<mode>.svg and span with tier code HT# or LT#
-        Pattern tierPattern = Pattern.compile("<div class=\"tier-mode-container\"[\\s\\S]*?<img[^>]+src=\\\"[^\\\"]*/([a-z0-9]+)\\.svg\\\"[\\s\\S]*?<span class=\\\"player-tier[^>]*>(H[Tt]|L[Tt])\\d+</span>", Pattern.CASE_INSENSITIVE);
-        Matcher tierMatcher = tierPattern.matcher(rowHtml);
-        Map<String,String> map = new HashMap<>();
-        while (tierMatcher.find()) {
-            String mode = tierMatcher.group(1).toLowerCase(Locale.ROOT);
-            String span = tierMatcher.group();
-            // capture the tier code inside last >...
-            Matcher codeM = Pattern.compile("(H[Tt]|L[Tt])\\d+").matcher(span);
-            if (codeM.find()) {
-                String code = codeM.group().toUpperCase(Locale.ROOT);
-                // map mode differences
-                if (mode.equals("diapot") || mode.equals("pot")) mode = "pot"; // safety
-                if (mode.equals("smp") || mode.equals("smpkit")) mode = "smp";
-                if (mode.equals("vanilla") || mode.equals("crystal")) mode = "vanilla";
-                map.put(mode, code);
-            }
-        }
-        return map;
-    }
-
-    private String fetchVanillaListLive() {
-        try {
-            // try base and anchor variant
-            String base = attemptVanillaListFetch(VANILLALIST_URL);
-            if (base != null) return base;
-            return attemptVanillaListFetch(VANILLALIST_URL + "#crystal");
-        } catch (Exception ignored) { return null; }
-    }
-
-    private String attemptVanillaListFetch(String urlStr) {
-        try {
-            URL url = new URL(urlStr);
-            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-            conn.setRequestMethod("GET");
-            conn.setConnectTimeout(4000);
-            conn.setReadTimeout(4000);
-            conn.setRequestProperty("User-Agent", "Mozilla/5.0 (JavaPlugin; +https://example.org)");
-            conn.setRequestProperty("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
-            if (conn.getResponseCode() != 200) return null;
-            try (BufferedReader r = new BufferedReader(new InputStreamReader(conn.getInputStream()))) {
-                StringBuilder sb = new StringBuilder();
-                String line; while ((line = r.readLine()) != null) sb.append(line).append('\n');
-                return sb.toString();
-            }
-        } catch (Exception e) { return null; }
-    }
-
-    // Try to download and cache a full html file on disk (plugins/SimpleMCTiers/vanillalist_live.html)
-    private String fetchVanillaListDownloadedFile() {
-        File f = new File(getDataFolder(), "vanillalist_live.html");
-        long now = System.currentTimeMillis();
-        // reuse if exists and younger than 6h
-        if (f.exists() && (now - f.lastModified()) < 6 * 60 * 60 * 1000L) {
-            try { return readFileContents(f); } catch (IOException ignored) {}
-        }
-        // attempt fresh download with more lenient timeouts
-        try {
-            String content = attemptVanillaListFetch(VANILLALIST_URL + "?ts=" + now);
-            if (content == null) content = attemptVanillaListFetch(VANILLALIST_URL + "#crystal");
-            if (content != null && content.length() > 500) { // basic sanity
-                try (java.io.FileWriter w = new java.io.FileWriter(f)) { w.write(content); }
-                return content;
-            }
-        } catch (Exception ignored) { }
-        // if download failed but old file exists, use it anyway
-        if (f.exists()) {
-            try { return readFileContents(f); } catch (IOException ignored) {}
-        }
-        return null;
-    }
-
-    private String readFileContents(File f) throws IOException {
-        try (BufferedReader r = new BufferedReader(new InputStreamReader(new java.io.FileInputStream(f)))) {
-            StringBuilder sb = new StringBuilder();
-            String line; while ((line = r.readLine()) != null) sb.append(line).append('\n');
-            return sb.toString();
-        }
-    }
-
-    private String readVanillaListCached() {
-        try (InputStream is = getResource("vanillalist_cached.html")) {
-            if (is == null) return null;
-            try (BufferedReader r = new BufferedReader(new InputStreamReader(is))) {
-                StringBuilder sb = new StringBuilder();
-                String line; while ((line = r.readLine()) != null) sb.append(line).append('\n');
-                return sb.toString();
+            if (p == null) return null;
+            long start = System.nanoTime();
+            try {
+                return resolver.get(p.getUniqueId(), p.getName(), "vntier_" + params.toLowerCase(Locale.ROOT), ChatColor.RED + "N/A");
+            } finally {
+                latency.since(start);
             }
-        } catch (IOException e) {
-            return null;
-        }
-    }
-
-    // ------------------------------------------------------------------------
-    // NEW: ELO based fallback (simple mapping from points -> rank colours)
-    // ------------------------------------------------------------------------
-    private String getEloBasedTier(String playerName) {
-        try {
-            Integer ptsO = getOverridePoints(playerName);
-            int pts = (ptsO != null) ? ptsO : JsonParser.parseString(fetchTierData(playerName))
-                    .getAsJsonObject().get("points").getAsInt();
-            if (pts >= 100) return ChatColor.YELLOW + "S";
-            if (pts >= 50)  return ChatColor.RED + "X";
-            if (pts >= 25)  return ChatColor.LIGHT_PURPLE + "V";
-            if (pts >= 15)  return ChatColor.GRAY + "IV";
-            if (pts >= 10)  return ChatColor.GRAY + "III";
-            if (pts >= 5)   return ChatColor.GRAY + "II";
-            if (pts >= 1)   return ChatColor.DARK_GRAY + "I";
-            return null;
-        } catch (Exception e) {
-            return null;
         }
     }
 
     // ------------------------------------------------------------------------
-    // Folia Compatibility Helper
+    // Scheduling Helper
     // ------------------------------------------------------------------------
-    private void runAsyncTask(Runnable task) {
+    // On the I/O pool; tells the sender instead when the pool is saturated
+    private void runIo(CommandSender sender, Runnable task) {
         try {
-            // Try to use Folia/Paper async scheduler first
-            Object asyncScheduler = getServer().getClass().getMethod("getAsyncScheduler").invoke(getServer());
-            asyncScheduler.getClass().getMethod("runNow", org.bukkit.plugin.Plugin.class, java.util.function.Consumer.class)
-                    .invoke(asyncScheduler, this, (java.util.function.Consumer<Object>) (scheduledTask) -> task.run());
-        } catch (Exception e) {
-            // Fall back to Bukkit scheduler for Spigot/older Paper
-            Bukkit.getScheduler().runTaskAsynchronously(this, task);
+            scheduler.io().execute(task);
+        } catch (RejectedExecutionException e) {
+            sender.sendMessage(PREFIX + ChatColor.RED + "Server busy, try again shortly.");
         }
     }
-
-    // ------------------------------------------------------------------------
-    // Utility
-    // ------------------------------------------------------------------------
-    private String capitalize(String s) {
-        if (s == null|| s.isEmpty()) return s;
-        return s.substring(0,1).toUpperCase(Locale.ROOT)+s.substring(1);
-    }
 }
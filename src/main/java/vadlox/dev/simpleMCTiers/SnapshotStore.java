@@ -0,0 +1,118 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Warm-start snapshot (snapshot.bin in the data folder): the mctiers.com cache and the
+ * name -> UUID mappings, each with its original timestamps. (The VanillaList index has
+ * its own file, see {@link VanillaListRefresher}.)
+ * Restored entries age exactly as if the server had never stopped, so anything past
+ * refresh-after is reloaded in the background on first use rather than all at once.
+ * Format: gzip'd DataOutput, magic + version, then one section per source.
+ */
+final class SnapshotStore {
+    private static final int MAGIC = 0x534D5453; // "SMTS"
+    private static final int VERSION = 1;
+    // records pack tiers by gamemode ordinal, so the enum order is part of the format
+    private static final String MODES = Arrays.stream(Gamemode.values()).map(Gamemode::id).collect(Collectors.joining(","));
+
+    private final File file;
+    private final Logger logger;
+
+    SnapshotStore(File dataFolder, Logger logger) {
+        this.file = new File(dataFolder, "snapshot.bin");
+        this.logger = logger;
+    }
+
+    // Restores the cache and identities in place
+    void load(TierCache<TierRecord> cache, IdentityResolver identities) {
+        if (!file.exists()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(new FileInputStream(file), 64 * 1024)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                logger.warning("Ignoring " + file.getName() + ": unknown format");
+                return;
+            }
+            in.readLong(); // saved at
+
+            if (!in.readUTF().equals(MODES)) {
+                logger.warning("Ignoring " + file.getName() + ": written for a different set of gamemodes");
+                return;
+            }
+            int records = in.readInt();
+            for (int i = 0; i < records; i++) {
+                String key = in.readUTF();
+                boolean negative = in.readBoolean();
+                long writtenAt = in.readLong();
+                cache.restore(key, new TierCache.Entry<>(TierRecord.readFrom(in), negative, writtenAt));
+            }
+
+            int names = in.readInt();
+            for (int i = 0; i < names; i++) {
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                String name = in.readUTF();
+                identities.restore(new IdentityResolver.Identity(uuid, name), in.readLong());
+            }
+
+            logger.info("Restored " + records + " tier records and " + names + " names from " + file.getName());
+        } catch (IOException | RuntimeException e) {
+            logger.warning("Could not read " + file.getName() + ", starting cold: " + e.getMessage());
+        }
+    }
+
+    synchronized void save(TierCache<TierRecord> cache, IdentityResolver identities) {
+        File tmp = new File(file.getParentFile(), file.getName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new GZIPOutputStream(new FileOutputStream(tmp), 64 * 1024)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+
+            out.writeUTF(MODES);
+            // least recently used first, so restoring rebuilds the same LRU order
+            List<Map.Entry<String, TierCache.Entry<TierRecord>>> entries = cache.entries();
+            out.writeInt(entries.size());
+            for (Map.Entry<String, TierCache.Entry<TierRecord>> e : entries) {
+                out.writeUTF(e.getKey());
+                out.writeBoolean(e.getValue().negative());
+                out.writeLong(e.getValue().writtenAt());
+                e.getValue().value().writeTo(out);
+            }
+
+            List<IdentityResolver.Known> names = identities.known();
+            out.writeInt(names.size());
+            for (IdentityResolver.Known k : names) {
+                out.writeLong(k.identity().uuid().getMostSignificantBits());
+                out.writeLong(k.identity().uuid().getLeastSignificantBits());
+                out.writeUTF(k.identity().name());
+                out.writeLong(k.resolvedAt());
+            }
+        } catch (IOException e) {
+            logger.warning("Could not write " + file.getName() + ": " + e.getMessage());
+            tmp.delete();
+            return;
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            logger.warning("Could not replace " + file.getName() + ": " + e.getMessage());
+        }
+    }
+}
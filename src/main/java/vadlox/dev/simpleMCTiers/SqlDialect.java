@@ -0,0 +1,106 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.List;
+
+/**
+ * The SQL that differs between the storage backends. Everything else is plain JDBC.
+ * MySQL cannot have a NULL column in a primary key, so the player-wide overrides row
+ * (gamemode == null in memory) is stored with gamemode '' there.
+ */
+enum SqlDialect {
+    SQLITE(null, "gamemode IS ?", "INSERT OR IGNORE", List.of(
+            """
+            CREATE TABLE IF NOT EXISTS overrides (
+                username TEXT NOT NULL,
+                gamemode TEXT,
+                tier INTEGER,
+                combatrank TEXT,
+                points INTEGER,
+                PRIMARY KEY(username, gamemode)
+            )
+            """,
+            // reset and the write-behind upserts filter by username
+            "CREATE INDEX IF NOT EXISTS idx_overrides_username ON overrides(username)",
+            // rows used to be keyed by capitalize(name); names are case-insensitive, so key them lower-case.
+            // NULLs never collide in the primary key, so OR REPLACE would keep every player-wide row:
+            // merge those by hand first, keeping the newest
+            "DELETE FROM overrides WHERE gamemode IS NULL AND rowid NOT IN "
+                    + "(SELECT MAX(rowid) FROM overrides WHERE gamemode IS NULL GROUP BY lower(username))",
+            "UPDATE OR REPLACE overrides SET username = lower(username) WHERE username <> lower(username)",
+            """
+            CREATE TABLE IF NOT EXISTS tier_cache (
+                name TEXT PRIMARY KEY,
+                record BLOB,
+                fetched_at INTEGER NOT NULL DEFAULT 0,
+                lease_owner TEXT,
+                lease_until INTEGER NOT NULL DEFAULT 0
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS changes (
+                id INTEGER PRIMARY KEY AUTOINCREMENT,
+                kind TEXT NOT NULL,
+                name TEXT NOT NULL,
+                origin TEXT NOT NULL,
+                changed_at INTEGER NOT NULL
+            )
+            """
+    )),
+    MYSQL("", "gamemode = ?", "INSERT IGNORE", List.of(
+            """
+            CREATE TABLE IF NOT EXISTS overrides (
+                username VARCHAR(32) NOT NULL,
+                gamemode VARCHAR(32) NOT NULL DEFAULT '',
+                tier INT NULL,
+                combatrank VARCHAR(16) NULL,
+                points INT NULL,
+                PRIMARY KEY(username, gamemode)
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS tier_cache (
+                name VARCHAR(32) NOT NULL PRIMARY KEY,
+                record VARBINARY(1024) NULL,
+                fetched_at BIGINT NOT NULL DEFAULT 0,
+                lease_owner VARCHAR(36) NULL,
+                lease_until BIGINT NOT NULL DEFAULT 0
+            )
+            """,
+            """
+            CREATE TABLE IF NOT EXISTS changes (
+                id BIGINT NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                kind VARCHAR(16) NOT NULL,
+                name VARCHAR(32) NOT NULL,
+                origin VARCHAR(36) NOT NULL,
+                changed_at BIGINT NOT NULL,
+                INDEX idx_changes_changed_at (changed_at)
+            )
+            """
+    ));
+
+    // what gamemode == null is stored as
+    private final String playerWide;
+    // matches a stored gamemode against one bound as gamemode(mode)
+    final String sameGamemode;
+    // INSERT that skips rows whose key already exists
+    final String insertIgnore;
+    // run in order when the database is opened
+    final List<String> schema;
+
+    SqlDialect(String playerWide, String sameGamemode, String insertIgnore, List<String> schema) {
+        this.playerWide = playerWide;
+        this.sameGamemode = sameGamemode;
+        this.insertIgnore = insertIgnore;
+        this.schema = schema;
+    }
+
+    // The stored form of a gamemode
+    String gamemode(String mode) {
+        return mode != null ? mode : playerWide;
+    }
+
+    // A stored gamemode read back, null for the player-wide row
+    String gamemodeOf(String stored) {
+        return stored == null || stored.equals(playerWide) ? null : stored;
+    }
+}
@@ -0,0 +1,151 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.plugin.Plugin;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Where the plugin runs things. Paper's region schedulers (global region, per-entity) are
+ * looked up once into method handles, so the plugin still loads on Spigot, where the
+ * Bukkit scheduler's main thread stands in for both. Blocking work (HTTP, files) goes to
+ * a bounded pool of our own instead of the server's shared async pool; when its queue is
+ * full a task is rejected rather than queued without limit.
+ */
+final class TaskScheduler {
+    private static final String PAPER = "io.papermc.paper.threadedregions.scheduler.";
+
+    private final Plugin plugin;
+    private final ThreadPoolExecutor io;
+    // (Plugin, Runnable) on the global region; null without Paper's schedulers
+    private final MethodHandle globalExecute;
+    // (Plugin, Consumer<ScheduledTask>, long delay, long period) on the global region
+    private final MethodHandle globalTimer;
+    // (Entity, Plugin, Runnable task, Runnable retired, long delay) -> false once the entity is gone
+    private final MethodHandle entityExecute;
+
+    TaskScheduler(Plugin plugin, int ioThreads, int ioQueue, Logger logger, Metrics metrics) {
+        this.plugin = plugin;
+        AtomicInteger n = new AtomicInteger();
+        Metrics.Counter rejected = metrics.counter("simplemctiers_executor_rejected_total", "executor", "io");
+        this.io = new ThreadPoolExecutor(Math.max(1, ioThreads), Math.max(1, ioThreads), 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, ioQueue)), r -> {
+                    Thread t = new Thread(r, "SimpleMCTiers-IO-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, (r, pool) -> {
+                    rejected.inc();
+                    throw new RejectedExecutionException("I/O queue full");
+                });
+        io.allowCoreThreadTimeOut(true);
+        metrics.gauge("simplemctiers_executor_queued", () -> io.getQueue().size(), "executor", "io");
+        metrics.gauge("simplemctiers_executor_active", io::getActiveCount, "executor", "io");
+
+        MethodHandle global = null, timer = null, entity = null;
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            Class<?> globalType = Class.forName(PAPER + "GlobalRegionScheduler");
+            Class<?> entityType = Class.forName(PAPER + "EntityScheduler");
+            Class<?> taskType = Class.forName(PAPER + "ScheduledTask");
+            Object globalScheduler = lookup.findVirtual(Server.class, "getGlobalRegionScheduler", methodType(globalType))
+                    .invoke(plugin.getServer());
+            global = lookup.findVirtual(globalType, "execute", methodType(void.class, Plugin.class, Runnable.class))
+                    .bindTo(globalScheduler);
+            timer = lookup.findVirtual(globalType, "runAtFixedRate",
+                            methodType(taskType, Plugin.class, Consumer.class, long.class, long.class))
+                    .bindTo(globalScheduler)
+                    .asType(methodType(void.class, Plugin.class, Consumer.class, long.class, long.class));
+            MethodHandle schedulerOf = lookup.findVirtual(Entity.class, "getScheduler", methodType(entityType));
+            MethodHandle execute = lookup.findVirtual(entityType, "execute",
+                    methodType(boolean.class, Plugin.class, Runnable.class, Runnable.class, long.class));
+            entity = MethodHandles.filterArguments(execute, 0, schedulerOf);
+        } catch (Throwable e) {
+            logger.info("Region schedulers unavailable, using the Bukkit scheduler");
+            global = timer = entity = null;
+        }
+        this.globalExecute = global;
+        this.globalTimer = timer;
+        this.entityExecute = entity;
+    }
+
+    // ------------------------------------------------------------------------
+    // Dispatch
+    // ------------------------------------------------------------------------
+    // Bounded pool for blocking plugin I/O; execute() throws RejectedExecutionException when full
+    Executor io() {
+        return io;
+    }
+
+    // On the global region (Folia) or the main thread
+    void global(Runnable task) {
+        if (globalExecute == null) {
+            Bukkit.getScheduler().runTask(plugin, task);
+            return;
+        }
+        try {
+            globalExecute.invokeExact(plugin, task);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    // Every tick on the global region (Folia) or the main thread, until the plugin is disabled
+    void everyTick(Runnable task) {
+        if (globalTimer == null) {
+            Bukkit.getScheduler().runTaskTimer(plugin, task, 1L, 1L);
+            return;
+        }
+        try {
+            globalTimer.invokeExact(plugin, (Consumer) scheduled -> task.run(), 1L, 1L);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    // On the thread that owns the entity (its region on Folia); dropped if the entity is gone by then
+    void entity(Entity entity, Runnable task) {
+        if (entityExecute == null) {
+            Bukkit.getScheduler().runTask(plugin, task);
+            return;
+        }
+        try {
+            boolean ignored = (boolean) entityExecute.invokeExact(entity, plugin, task, (Runnable) null, 1L);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    // Where the sender may be talked to: a player's own region, otherwise the global region
+    void forSender(CommandSender sender, Runnable task) {
+        if (sender instanceof Entity e) entity(e, task);
+        else global(task);
+    }
+
+    // sendMessage from any thread
+    void send(CommandSender sender, String message) {
+        forSender(sender, () -> sender.sendMessage(message));
+    }
+
+    void shutdown() {
+        io.shutdownNow();
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException r) return r;
+        if (e instanceof Error err) throw err;
+        return new IllegalStateException(e);
+    }
+}
@@ -0,0 +1,102 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size-bounded LRU cache with expire-after-write and refresh-after-write.
+ * Negative entries (unknown / non-premium names, 404s) get their own, shorter TTL
+ * and are never refreshed, only expired.
+ */
+final class TierCache<V> {
+    record Entry<V>(V value, boolean negative, long writtenAt) {}
+
+    private final int maxSize;
+    private final long ttlMs;
+    private final long refreshMs;
+    private final long negativeTtlMs;
+
+    private final LinkedHashMap<String, Entry<V>> map;
+
+    TierCache(int maxSize, long ttlMs, long refreshMs, long negativeTtlMs) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMs = ttlMs;
+        this.refreshMs = refreshMs;
+        this.negativeTtlMs = negativeTtlMs;
+        this.map = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<String, Entry<V>> eldest) {
+                return size() > TierCache.this.maxSize;
+            }
+        };
+    }
+
+    // @return the live entry for key, or null when absent or expired
+    synchronized Entry<V> getEntry(String key) {
+        Entry<V> e = map.get(key);
+        if (e == null || expired(e)) return null;
+        return e;
+    }
+
+    boolean expired(Entry<V> e) {
+        return System.currentTimeMillis() - e.writtenAt() >= (e.negative() ? negativeTtlMs : ttlMs);
+    }
+
+    // Expired entries linger until LRU eviction so they can stand in while an upstream is down
+    synchronized Entry<V> getStale(String key) {
+        return map.get(key);
+    }
+
+    V getIfPresent(String key) {
+        Entry<V> e = getEntry(key);
+        return e != null ? e.value() : null;
+    }
+
+    // Positive entries older than the refresh window are still served, but should be reloaded
+    boolean needsRefresh(Entry<V> e) {
+        return !e.negative() && System.currentTimeMillis() - e.writtenAt() >= refreshMs;
+    }
+
+    synchronized void put(String key, V value) {
+        put(key, value, System.currentTimeMillis());
+    }
+
+    synchronized void put(String key, V value, long writtenAt) {
+        map.put(key, new Entry<>(value, false, writtenAt));
+    }
+
+    synchronized void putNegative(String key, V value) {
+        map.put(key, new Entry<>(value, true, System.currentTimeMillis()));
+    }
+
+    // Re-insert an entry with its original write time (warm start); never replaces a newer one
+    synchronized void restore(String key, Entry<V> entry) {
+        Entry<V> cur = map.get(key);
+        if (cur == null || cur.writtenAt() < entry.writtenAt()) map.put(key, entry);
+    }
+
+    // Copy of every entry, expired ones included, least recently used first
+    synchronized List<Map.Entry<String, Entry<V>>> entries() {
+        List<Map.Entry<String, Entry<V>>> out = new ArrayList<>(map.size());
+        for (Map.Entry<String, Entry<V>> e : map.entrySet()) out.add(Map.entry(e.getKey(), e.getValue()));
+        return out;
+    }
+
+    synchronized void invalidate(String key) {
+        map.remove(key);
+    }
+
+    // For caches that have no use for stale entries
+    synchronized void removeExpired() {
+        map.values().removeIf(this::expired);
+    }
+
+    synchronized int size() {
+        return map.size();
+    }
+
+    synchronized void clear() {
+        map.clear();
+    }
+}
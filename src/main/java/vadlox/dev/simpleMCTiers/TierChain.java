@@ -0,0 +1,154 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Asks every {@link TierSource} for a player at once and, per gamemode, takes the answer of
+ * the highest-priority source that has one, as soon as every source above it has answered
+ * without one. A source that has not answered by its deadline counts as having no answer for
+ * this lookup; its result still fills its own cache, and {@link #onLate} is told so the
+ * player can be rendered again. Once every gamemode is decided the waits on the remaining
+ * sources are cancelled (shared loads such as mctiers.com keep running to fill the cache).
+ */
+final class TierChain {
+    // deadlineMs <= 0 waits for the source however long it takes
+    record Link(TierSource source, long deadlineMs) {}
+
+    // source == null when no source had a tier for the gamemode
+    record Answer(TierSource source, String value) {
+        static final Answer NONE = new Answer(null, null);
+    }
+
+    // degraded: some source failed or missed its deadline, so a lower one may have answered
+    record Result(Answer[] byMode, boolean degraded) {
+        Answer get(Gamemode mode) {
+            return byMode[mode.ordinal()];
+        }
+    }
+
+    private static final Gamemode[] MODES = Gamemode.values();
+    // stand-ins for a source that failed or ran out of time (no tier in any mode)
+    private static final TierSource.Tiers FAILED = new TierSource.Tiers(new String[MODES.length]);
+    private static final TierSource.Tiers LATE = new TierSource.Tiers(new String[MODES.length]);
+
+    private final Link[] links;
+    private final Metrics.Counter[] rendered;
+    private final Metrics.Counter renderedNone;
+    private final Metrics.Counter[] failed;
+    private final Metrics.Counter[] late;
+    private final Metrics.Histogram decideTime;
+
+    // told about a player whose late answer may change what was rendered
+    private volatile Consumer<String> onLate = name -> {};
+
+    TierChain(List<Link> links, Metrics metrics) {
+        this.links = links.toArray(new Link[0]);
+        this.rendered = new Metrics.Counter[this.links.length];
+        this.failed = new Metrics.Counter[this.links.length];
+        this.late = new Metrics.Counter[this.links.length];
+        for (int i = 0; i < this.links.length; i++) {
+            String id = this.links[i].source().id();
+            rendered[i] = metrics.counter("simplemctiers_render_source_total", "source", id);
+            failed[i]   = metrics.counter("simplemctiers_source_failures_total", "source", id, "reason", "error");
+            late[i]     = metrics.counter("simplemctiers_source_failures_total", "source", id, "reason", "deadline");
+        }
+        this.renderedNone = metrics.counter("simplemctiers_render_source_total", "source", "none");
+        this.decideTime = metrics.histogram("simplemctiers_source_chain_seconds");
+    }
+
+    void onLate(Consumer<String> listener) {
+        this.onLate = listener;
+    }
+
+    CompletableFuture<Result> lookup(String playerName) {
+        Lookup l = new Lookup(playerName);
+        l.start();
+        return l.result;
+    }
+
+    // ------------------------------------------------------------------------
+    // One lookup
+    // ------------------------------------------------------------------------
+    private final class Lookup {
+        private final String playerName;
+        private final long started = System.nanoTime();
+        private final CompletableFuture<Result> result = new CompletableFuture<>();
+        @SuppressWarnings("unchecked")
+        private final CompletableFuture<TierSource.Tiers>[] raw = new CompletableFuture[links.length];
+        @SuppressWarnings("unchecked")
+        private final CompletableFuture<TierSource.Tiers>[] waits = new CompletableFuture[links.length];
+        private boolean degraded; // guarded by this
+        // one re-render per lookup, however many sources answer late
+        private final AtomicBoolean lateNotified = new AtomicBoolean();
+
+        Lookup(String playerName) {
+            this.playerName = playerName;
+        }
+
+        void start() {
+            for (int i = 0; i < links.length; i++) {
+                try {
+                    raw[i] = links[i].source().lookup(playerName);
+                } catch (RuntimeException e) {
+                    raw[i] = CompletableFuture.failedFuture(e);
+                }
+                // a dependent copy, so a deadline or cancel never touches the source's own future
+                waits[i] = raw[i].exceptionally(e -> FAILED);
+                if (links[i].deadlineMs() > 0) waits[i].completeOnTimeout(LATE, links[i].deadlineMs(), TimeUnit.MILLISECONDS);
+            }
+            for (int i = 0; i < links.length; i++) {
+                int at = i;
+                waits[i].whenComplete((tiers, e) -> settled(at, tiers));
+            }
+            if (links.length == 0) decide();
+        }
+
+        private synchronized void settled(int i, TierSource.Tiers tiers) {
+            if (result.isDone()) return;
+            if (tiers == FAILED) {
+                failed[i].inc();
+                degraded = true;
+            } else if (tiers == LATE) {
+                late[i].inc();
+                degraded = true;
+                raw[i].thenAccept(t -> {
+                    for (String v : t.byMode()) {
+                        if (v != null) {
+                            if (lateNotified.compareAndSet(false, true)) onLate.accept(playerName);
+                            return;
+                        }
+                    }
+                });
+            }
+            decide();
+        }
+
+        // Complete once every gamemode has its highest-priority answer
+        private void decide() {
+            Answer[] out = new Answer[MODES.length];
+            for (Gamemode g : MODES) {
+                Answer a = Answer.NONE;
+                for (int i = 0; i < links.length; i++) {
+                    if (!waits[i].isDone()) return; // a higher-priority source may still answer
+                    String v = waits[i].join().get(g);
+                    if (v != null) {
+                        a = new Answer(links[i].source(), v);
+                        break;
+                    }
+                }
+                out[g.ordinal()] = a;
+            }
+            for (Answer a : out) {
+                if (a.source() == null) { renderedNone.inc(); continue; }
+                for (int i = 0; i < links.length; i++) if (links[i].source() == a.source()) rendered[i].inc();
+            }
+            decideTime.since(started);
+            result.complete(new Result(out, degraded));
+            for (CompletableFuture<TierSource.Tiers> w : waits) w.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package vadlox.dev.simpleMCTiers;
+
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.player.PlayerEvent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Fired when something an online player's placeholders show has changed: a mctiers.com
+ * refresh, a new VanillaList page, an override edit (here or on another server sharing the
+ * database) or a source answering late. One event per changed value; nothing is fired for
+ * the first values after a join, nor when a rebuild leaves everything as it was.
+ * <p>
+ * Fired asynchronously, from the thread that rebuilt the player's placeholders; schedule
+ * onto the player's thread before touching the world, scoreboards or the player.
+ */
+public class TierChangeEvent extends PlayerEvent {
+    private static final HandlerList HANDLERS = new HandlerList();
+
+    // Which placeholder the changed value belongs to
+    public enum Kind {
+        // %tier_<mode>%: the answer of the highest-priority source
+        TIER,
+        // %vntier_<mode>%: the VanillaList tier on its own
+        VANILLALIST,
+        // %combatrank_overall%, with mode "overall"
+        COMBAT_RANK
+    }
+
+    private final Kind kind;
+    private final String mode;
+    private final String oldTier;
+    private final String newTier;
+    private final String source;
+
+    TierChangeEvent(Player player, Kind kind, String mode, String oldTier, String newTier, String source) {
+        super(player, true);
+        this.kind = kind;
+        this.mode = mode;
+        this.oldTier = oldTier;
+        this.newTier = newTier;
+        this.source = source;
+    }
+
+    @NotNull
+    public Kind getKind() {
+        return kind;
+    }
+
+    // Gamemode id as used in placeholders (e.g. "sword"), or "overall" for the combat rank
+    @NotNull
+    public String getMode() {
+        return mode;
+    }
+
+    // The previous value without colour codes (e.g. "HT3", "S"), null when there was none
+    @Nullable
+    public String getOldTier() {
+        return oldTier;
+    }
+
+    // The new value without colour codes, null when there is none any more
+    @Nullable
+    public String getNewTier() {
+        return newTier;
+    }
+
+    // Id of the source the new value came from (override, mctiers, vanillalist, elo); null with no value
+    @Nullable
+    public String getSource() {
+        return source;
+    }
+
+    @NotNull
+    @Override
+    public HandlerList getHandlers() {
+        return HANDLERS;
+    }
+
+    @NotNull
+    public static HandlerList getHandlerList() {
+        return HANDLERS;
+    }
+}
@@ -0,0 +1,138 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.bukkit.ChatColor;
+
+/**
+ * Turns {@link TierChain} answers, decoded records, overrides and the VanillaList index into
+ * the strings shown in chat and placeholders. Pure reads over in-memory state: no I/O, safe from any thread.
+ */
+final class TierFormatter {
+    private static final String NA = ChatColor.RED + "N/A";
+    // combat ranks, lowest first
+    static final List<String> RANKS = List.of("I", "II", "III", "IV", "V", "X", "S");
+
+    private final String prefix;
+    private final OverrideStore overrides;
+    private final Supplier<VanillaListIndex> vanillaList;
+
+    TierFormatter(String prefix, OverrideStore overrides, Supplier<VanillaListIndex> vanillaList) {
+        this.prefix = prefix;
+        this.overrides = overrides;
+        this.vanillaList = vanillaList;
+    }
+
+    // ------------------------------------------------------------------------
+    // Tiers
+    // ------------------------------------------------------------------------
+    // The answer TierChain picked for one gamemode (override, mctiers.com, VanillaList or ELO by default)
+    String singleTier(TierChain.Answer answer, String playerName, String gamemode) {
+        if (answer.source() == null) return prefix + NA;
+        return prefix + ChatColor.GREEN + playerName + "'s " + capitalize(gamemode)
+                + " Tier" + answer.source().label() + ": " + answer.value();
+    }
+
+    String vanillaListTier(String playerName, String gamemode) {
+        String tier = vanillaListCode(playerName, gamemode);
+        return tier != null ? ChatColor.AQUA + tier : NA;
+    }
+
+    // Not counted as a lookup: TierSources.vanillaList counts the ones the chain makes
+    String vanillaListCode(String playerName, String gamemode) {
+        return vanillaList.get().get(playerName, gamemode.toLowerCase(Locale.ROOT));
+    }
+
+    // ------------------------------------------------------------------------
+    // Combat rank / ELO (rec may be null when mctiers.com could not be reached)
+    // ------------------------------------------------------------------------
+    String combatRank(String playerName, TierRecord rec) {
+        String or = overrides.combatRank(playerName);
+        if (or != null) return or;
+        Integer oP = overrides.points(playerName);
+        if (oP == null && rec == null) return NA;
+        String rank = coloredRank(oP != null ? oP : rec.points());
+        return rank != null ? rank : NA;
+    }
+
+    // @return the coloured rank for the player's points, or null when there is none
+    String eloTier(String playerName, TierRecord rec) {
+        Integer oP = overrides.points(playerName);
+        if (oP == null && rec == null) return null;
+        return coloredRank(oP != null ? oP : rec.points());
+    }
+
+    // ------------------------------------------------------------------------
+    // Placeholder snapshots
+    // ------------------------------------------------------------------------
+    // Every value a PlaceholderResolver snapshot holds for one player, keyed <identifier>_<params>;
+    // rec is whatever mctiers.com record is cached (may be null)
+    Map<String, String> placeholders(String playerName, TierChain.Result tiers, TierRecord rec) {
+        Map<String, String> out = new HashMap<>();
+        for (Gamemode g : Gamemode.values()) {
+            out.put("tier_" + g.id(), singleTier(tiers.get(g), playerName, g.id()));
+            out.put("vntier_" + g.id(), vanillaListTier(playerName, g.id()));
+        }
+        out.put("combatrank_overall", combatRank(playerName, rec));
+        String eloTier = eloTier(playerName, rec);
+        out.put("tiertag_tier", eloTier != null ? eloTier : NA);
+        return out;
+    }
+
+    // The values behind placeholders(), uncoloured, with the source of each
+    TierState state(String playerName, TierChain.Result tiers, TierRecord rec) {
+        int n = Gamemode.values().length;
+        String[] tier = new String[n];
+        String[] source = new String[n];
+        String[] vnl = new String[n];
+        VanillaListIndex index = vanillaList.get();
+        for (Gamemode g : Gamemode.values()) {
+            TierChain.Answer a = tiers.get(g);
+            if (a.source() != null) {
+                tier[g.ordinal()] = ChatColor.stripColor(a.value());
+                source[g.ordinal()] = a.source().id();
+            }
+            vnl[g.ordinal()] = index.get(playerName, g.id());
+        }
+        String rank = overrides.combatRank(playerName);
+        String rankSource = "override";
+        if (rank == null) {
+            Integer oP = overrides.points(playerName);
+            rank = oP != null ? rankFor(oP) : rec != null ? rankFor(rec.points()) : null;
+            rankSource = oP != null ? "override" : "mctiers";
+        }
+        if (rank == null) rankSource = null;
+        return new TierState(tier, source, vnl, rank != null ? ChatColor.stripColor(rank) : null, rankSource);
+    }
+
+    // @return I..S for the given points, or null below 1
+    static String rankFor(int pts) {
+        if (pts >= 100) return "S";
+        if (pts >= 50)  return "X";
+        if (pts >= 25)  return "V";
+        if (pts >= 15)  return "IV";
+        if (pts >= 10)  return "III";
+        if (pts >= 5)   return "II";
+        if (pts >= 1)   return "I";
+        return null;
+    }
+
+    static String coloredRank(int pts) {
+        if (pts >= 100) return ChatColor.YELLOW + "S";
+        if (pts >= 50)  return ChatColor.RED + "X";
+        if (pts >= 25)  return ChatColor.LIGHT_PURPLE + "V";
+        if (pts >= 15)  return ChatColor.GRAY + "IV";
+        if (pts >= 10)  return ChatColor.GRAY + "III";
+        if (pts >= 5)   return ChatColor.GRAY + "II";
+        if (pts >= 1)   return ChatColor.DARK_GRAY + "I";
+        return null;
+    }
+
+    static String capitalize(String s) {
+        if (s == null|| s.isEmpty()) return s;
+        return s.substring(0,1).toUpperCase(Locale.ROOT)+s.substring(1);
+    }
+}
@@ -0,0 +1,98 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A player's tiers as the placeholders show them, without colour codes: per gamemode the
+ * answer of the highest-priority source and the VanillaList tier on its own, plus the combat
+ * rank and ELO points. Immutable; obtained from {@link TierService}.
+ */
+public final class TierProfile {
+    private static final List<String> MODES = Arrays.stream(Gamemode.values()).map(Gamemode::id).toList();
+
+    private final String name;
+    private final UUID uuid;
+    private final TierState state;
+    private final Integer points;
+    private final String region;
+    private final long resolvedAt;
+
+    TierProfile(String name, UUID uuid, TierState state, Integer points, String region, long resolvedAt) {
+        this.name = name;
+        this.uuid = uuid;
+        this.state = state;
+        this.points = points;
+        this.region = region;
+        this.resolvedAt = resolvedAt;
+    }
+
+    // Every gamemode id the getters below accept
+    @NotNull
+    public static List<String> getModes() {
+        return MODES;
+    }
+
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    // null when the player's account is not known to this server
+    @Nullable
+    public UUID getUniqueId() {
+        return uuid;
+    }
+
+    // %tier_<mode>% without the text around it, e.g. "HT3"; null when no source has one
+    @Nullable
+    public String getTier(@NotNull String mode) {
+        Gamemode g = Gamemode.of(mode);
+        return g != null ? state.tiers()[g.ordinal()] : null;
+    }
+
+    // Id of the source getTier(mode) came from (override, mctiers, vanillalist, elo), or null
+    @Nullable
+    public String getTierSource(@NotNull String mode) {
+        Gamemode g = Gamemode.of(mode);
+        return g != null ? state.sources()[g.ordinal()] : null;
+    }
+
+    // %vntier_<mode>%: the player's VanillaList tier, or null when not listed
+    @Nullable
+    public String getVanillaListTier(@NotNull String mode) {
+        Gamemode g = Gamemode.of(mode);
+        return g != null ? state.vanillaList()[g.ordinal()] : null;
+    }
+
+    // %combatrank_overall%, I..S; null when there is none
+    @Nullable
+    public String getCombatRank() {
+        return state.combatRank();
+    }
+
+    // Override points if set, else the mctiers.com points; null when neither is known
+    @Nullable
+    public Integer getPoints() {
+        return points;
+    }
+
+    // mctiers.com region, null when mctiers.com has no profile for the player
+    @Nullable
+    public String getRegion() {
+        return region;
+    }
+
+    // When this profile was put together, epoch millis
+    public long getResolvedAt() {
+        return resolvedAt;
+    }
+
+    @Override
+    public String toString() {
+        return "TierProfile[" + name + "]";
+    }
+}
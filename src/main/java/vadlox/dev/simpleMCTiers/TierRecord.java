@@ -0,0 +1,118 @@
+package vadlox.dev.simpleMCTiers;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * One decoded mctiers.com profile. The response is parsed once when it arrives; renders
+ * only read fields. Tiers and positions are packed per gamemode ordinal, 0 meaning "not ranked".
+ */
+final class TierRecord {
+    private static final int MODES = Gamemode.values().length;
+
+    private final String name;
+    private final String region;
+    private final int points;
+    private final byte[] tiers;
+    private final byte[] positions;
+
+    private TierRecord(String name, String region, int points, byte[] tiers, byte[] positions) {
+        this.name = name;
+        this.region = region;
+        this.points = points;
+        this.tiers = tiers;
+        this.positions = positions;
+    }
+
+    // Stand-in for unknown / unranked players (was createErrorResponse)
+    static TierRecord empty(String name) {
+        return new TierRecord(name, "N/A", 0, new byte[MODES], new byte[MODES]);
+    }
+
+    static TierRecord of(String name, String region, int points, Map<Gamemode, int[]> ranks) {
+        byte[] t = new byte[MODES], p = new byte[MODES];
+        ranks.forEach((g, tp) -> { t[g.ordinal()] = (byte) tp[0]; p[g.ordinal()] = (byte) tp[1]; });
+        return new TierRecord(name, region, points, t, p);
+    }
+
+    // @return the decoded profile, or null if the response has no "name"
+    static TierRecord parse(String json) {
+        JsonObject obj = JsonParser.parseString(json).getAsJsonObject();
+        if (!obj.has("name")) return null;
+        byte[] t = new byte[MODES], p = new byte[MODES];
+        JsonElement rankings = obj.get("rankings");
+        if (rankings != null && rankings.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> e : rankings.getAsJsonObject().entrySet()) {
+                Gamemode g = Gamemode.of(e.getKey());
+                if (g == null || !e.getValue().isJsonObject()) continue;
+                JsonObject r = e.getValue().getAsJsonObject();
+                if (!r.has("tier") || !r.has("pos")) continue;
+                t[g.ordinal()] = (byte) r.get("tier").getAsInt();
+                p[g.ordinal()] = (byte) r.get("pos").getAsInt();
+            }
+        }
+        JsonElement region = obj.get("region");
+        JsonElement points = obj.get("points");
+        return new TierRecord(
+                obj.get("name").getAsString(),
+                region != null && !region.isJsonNull() ? region.getAsString() : "N/A",
+                points != null && !points.isJsonNull() ? points.getAsInt() : 0,
+                t, p);
+    }
+
+    // Binary form used by the warm-start snapshot
+    void writeTo(DataOutput out) throws IOException {
+        out.writeUTF(name);
+        out.writeUTF(region);
+        out.writeInt(points);
+        out.write(tiers);
+        out.write(positions);
+    }
+
+    // Reads what writeTo wrote, for the same set of gamemodes
+    static TierRecord readFrom(DataInput in) throws IOException {
+        String name = in.readUTF(), region = in.readUTF();
+        int points = in.readInt();
+        byte[] t = new byte[MODES], p = new byte[MODES];
+        in.readFully(t);
+        in.readFully(p);
+        return new TierRecord(name, region, points, t, p);
+    }
+
+    String name() { return name; }
+    String region() { return region; }
+    int points() { return points; }
+
+    boolean ranked(Gamemode g) { return tiers[g.ordinal()] != 0; }
+
+    // 1..5, or 0 when not ranked
+    int tier(Gamemode g) { return tiers[g.ordinal()]; }
+
+    // 0 = high, 1 = low
+    int pos(Gamemode g) { return positions[g.ordinal()]; }
+
+    // e.g. "HT3", or null when not ranked
+    String tierCode(Gamemode g) {
+        int tier = tiers[g.ordinal()];
+        return tier == 0 ? null : (positions[g.ordinal()] == 0 ? "HT" : "LT") + tier;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TierRecord r)) return false;
+        return points == r.points && name.equals(r.name) && region.equals(r.region)
+                && Arrays.equals(tiers, r.tiers) && Arrays.equals(positions, r.positions);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * name.hashCode() + points) + Arrays.hashCode(tiers);
+    }
+}
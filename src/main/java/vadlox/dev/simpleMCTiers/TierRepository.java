@@ -0,0 +1,285 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * mctiers.com profiles by player name: served from the {@link TierCache}, refreshed in the
+ * background once they age, and loaded single-flight on a miss so concurrent lookups for
+ * one player share a single request. With a {@link SharedTierCache} the single flight spans
+ * every server on the shared database. With a {@link RefreshScheduler} aged records are left
+ * to its budget instead of being reloaded by whichever read finds them.
+ */
+final class TierRepository {
+    private final String baseUrl;
+    private final HttpFetcher http;
+    private final HttpFetcher.Endpoint endpoint;
+    private final IdentityResolver identities;
+    private final TierCache<TierRecord> cache;
+    private final Executor background;
+
+    private final Metrics.Counter hits;
+    private final Metrics.Counter misses;
+    private final Metrics.Counter staleServed;
+    private final Metrics.Counter errors;
+
+    // told about every record stored (including negative ones), with the player's name
+    private volatile Consumer<String> onStored = name -> {};
+    // profiles shared with the other servers on the database; null when running alone
+    private volatile SharedTierCache shared;
+    // told about every lookup and refreshes aged records; null: a read refreshes what it finds aged
+    private volatile RefreshScheduler refresher;
+
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    // in-flight loads, so concurrent misses for one player share a single request
+    private final ConcurrentHashMap<String, CompletableFuture<TierRecord>> loading = new ConcurrentHashMap<>();
+
+    TierRepository(String baseUrl, HttpFetcher http, HttpFetcher.Endpoint endpoint,
+                   IdentityResolver identities, TierCache<TierRecord> cache, Executor background, Metrics metrics) {
+        this.baseUrl = baseUrl;
+        this.http = http;
+        this.endpoint = endpoint;
+        this.identities = identities;
+        this.cache = cache;
+        this.background = background;
+        this.hits        = metrics.counter("simplemctiers_lookups_total", "source", "mctiers", "result", "hit");
+        this.misses      = metrics.counter("simplemctiers_lookups_total", "source", "mctiers", "result", "miss");
+        this.staleServed = metrics.counter("simplemctiers_lookups_total", "source", "mctiers", "result", "stale");
+        this.errors      = metrics.counter("simplemctiers_lookups_total", "source", "mctiers", "result", "error");
+        metrics.gauge("simplemctiers_cache_entries", cache::size, "cache", "mctiers");
+        metrics.gauge("simplemctiers_inflight", loading::size, "kind", "mctiers_loads");
+    }
+
+    TierCache<TierRecord> cache() {
+        return cache;
+    }
+
+    void onStored(Consumer<String> listener) {
+        this.onStored = listener;
+    }
+
+    void share(SharedTierCache shared) {
+        this.shared = shared;
+    }
+
+    void refreshVia(RefreshScheduler refresher) {
+        this.refresher = refresher;
+    }
+
+    // ------------------------------------------------------------------------
+    // Lookups
+    // ------------------------------------------------------------------------
+    TierRecord fetch(String playerName) throws IOException {
+        looked(playerName);
+        TierRecord cached = cached(playerName);
+        if (cached != null) return cached;
+        misses.inc();
+        try {
+            return load(playerName);
+        } catch (IOException e) {
+            return staleOrThrow(playerName, e);
+        }
+    }
+
+    // Like fetch, but a miss is loaded on the background executor instead of the calling thread
+    CompletableFuture<TierRecord> fetchAsync(String playerName) {
+        looked(playerName);
+        TierRecord cached = cached(playerName);
+        if (cached != null) return CompletableFuture.completedFuture(cached);
+        misses.inc();
+        return loadAsync(playerName).handle((rec, e) -> {
+            if (e == null) return rec;
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            try {
+                return staleOrThrow(playerName, cause instanceof IOException io ? io : new IOException(cause));
+            } catch (IOException io) {
+                throw new CompletionException(io);
+            }
+        });
+    }
+
+    // @return whatever record is cached, however old, without any I/O
+    TierRecord peek(String playerName) {
+        TierCache.Entry<TierRecord> e = cache.getStale(IdentityResolver.key(playerName));
+        return e != null ? e.value() : null;
+    }
+
+    // true when fetchAsync would answer from memory right now
+    boolean isCached(String playerName) {
+        return cache.getIfPresent(IdentityResolver.key(playerName)) != null;
+    }
+
+    private void looked(String playerName) {
+        RefreshScheduler r = refresher;
+        if (r != null) r.looked(playerName);
+    }
+
+    // A cache hit, reloaded in the background once it ages past refresh-after (by the refresher, if any); null on a miss
+    private TierRecord cached(String playerName) {
+        TierCache.Entry<TierRecord> cached = cache.getEntry(IdentityResolver.key(playerName));
+        if (cached == null) return null;
+        hits.inc();
+        if (refresher == null && cache.needsRefresh(cached)) refresh(playerName);
+        return cached.value();
+    }
+
+    /**
+     * Reload a player on the background executor, keeping the cached record meanwhile.
+     * @return false when a load is already running or the executor is saturated
+     */
+    boolean refresh(String playerName) {
+        String key = IdentityResolver.key(playerName);
+        if (loading.containsKey(key) || !refreshing.add(key)) return false;
+        try {
+            background.execute(() -> {
+                try { load(playerName); }
+                catch (IOException ignored) {}
+                finally { refreshing.remove(key); }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            // executor saturated: serve the aged record, try again later
+            refreshing.remove(key);
+            return false;
+        }
+    }
+
+    // Upstream down or circuit open: an expired record beats nothing
+    private TierRecord staleOrThrow(String playerName, IOException e) throws IOException {
+        TierCache.Entry<TierRecord> stale = cache.getStale(IdentityResolver.key(playerName));
+        if (stale != null) {
+            staleServed.inc();
+            return stale.value();
+        }
+        errors.inc();
+        throw e;
+    }
+
+    // Single-flight: the first caller for a name does the request, everyone else waits on it
+    // for up to the endpoint timeout (it may be a background load still queued on our pool)
+    TierRecord load(String playerName) throws IOException {
+        String key = IdentityResolver.key(playerName);
+        CompletableFuture<TierRecord> mine = new CompletableFuture<>();
+        CompletableFuture<TierRecord> running = loading.putIfAbsent(key, mine);
+        if (running != null) {
+            try {
+                return running.get(endpoint.timeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // a background load may still be queued behind this very thread: ask ourselves
+                return request(playerName);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException io) throw io;
+                if (e.getCause() instanceof RuntimeException re) throw re;
+                throw new CompletionException(e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted waiting for " + playerName);
+            }
+        }
+        try {
+            TierRecord rec = request(playerName);
+            mine.complete(rec);
+            return rec;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    // Single-flight as well, sharing in-flight loads with load()
+    private CompletableFuture<TierRecord> loadAsync(String playerName) {
+        String key = IdentityResolver.key(playerName);
+        CompletableFuture<TierRecord> mine = new CompletableFuture<>();
+        CompletableFuture<TierRecord> running = loading.putIfAbsent(key, mine);
+        if (running != null) return running;
+        try {
+            background.execute(() -> {
+                try {
+                    mine.complete(request(playerName));
+                } catch (IOException | RuntimeException e) {
+                    mine.completeExceptionally(e);
+                } finally {
+                    loading.remove(key, mine);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loading.remove(key, mine);
+            mine.completeExceptionally(e);
+        }
+        return mine;
+    }
+
+    // Another server fetched this player: replace our copy, if we hold one, with theirs
+    void adopt(String playerName) {
+        SharedTierCache shared = this.shared;
+        if (shared == null || cache.getEntry(IdentityResolver.key(playerName)) == null) return;
+        SharedTierCache.Hit hit = shared.get(IdentityResolver.key(playerName));
+        if (hit != null) store(playerName, hit.record(), false);
+    }
+
+    // Keep fresh records around for rejoins and /tier, but drop stale or negative ones
+    void evictIfStale(String playerName) {
+        String key = IdentityResolver.key(playerName);
+        TierCache.Entry<TierRecord> entry = cache.getEntry(key);
+        if (entry != null && (entry.negative() || cache.needsRefresh(entry))) cache.invalidate(key);
+    }
+
+    // ------------------------------------------------------------------------
+    // Upstream
+    // ------------------------------------------------------------------------
+    private TierRecord request(String playerName) throws IOException {
+        SharedTierCache shared = this.shared;
+        if (shared == null) return requestUpstream(playerName);
+        String key = IdentityResolver.key(playerName);
+        // another server may have fetched it already, or be fetching it right now
+        SharedTierCache.Hit hit = shared.acquire(key);
+        if (hit != null) return store(playerName, hit.record(), false);
+        try {
+            return requestUpstream(playerName);
+        } catch (IOException | RuntimeException e) {
+            shared.release(key);
+            throw e;
+        }
+    }
+
+    private TierRecord requestUpstream(String playerName) throws IOException {
+        IdentityResolver.Identity id = identities.resolve(playerName);
+        if (id == null) return store(playerName, null, true);
+
+        return http.get(endpoint, baseUrl + id.name(), Map.of(), (status, headers, body) -> {
+            if (status == 404) return store(playerName, null, true);
+            if (status != 200) throw new IOException("mctiers.com returned HTTP " + status);
+            // decoded once here; renders only read fields
+            TierRecord rec;
+            try { rec = TierRecord.parse(new String(body.readAllBytes(), StandardCharsets.UTF_8)); }
+            catch (RuntimeException e) { throw new IOException("Malformed mctiers.com response", e); }
+            return store(playerName, rec, true);
+        });
+    }
+
+    // Cache a record (null: no such player, cached negatively) and pass it on to the other servers
+    private TierRecord store(String playerName, TierRecord rec, boolean publish) {
+        String key = IdentityResolver.key(playerName);
+        TierRecord out = rec != null ? rec : TierRecord.empty(playerName);
+        if (rec != null) cache.put(key, rec);
+        else cache.putNegative(key, out);
+        SharedTierCache shared = this.shared;
+        if (publish && shared != null) shared.publish(key, rec);
+        onStored.accept(playerName);
+        return out;
+    }
+}
@@ -0,0 +1,39 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tier lookups for other plugins, registered with Bukkit's ServicesManager:
+ * <pre>
+ * TierService tiers = Bukkit.getServicesManager().load(TierService.class);
+ * </pre>
+ * Lookups go through the same caches and shared in-flight requests as the placeholders, so
+ * asking here never costs a second upstream request for a player. Futures never complete
+ * exceptionally (an unreachable source just has no tiers) and complete off the main thread.
+ * Changes to online players are announced with {@link TierChangeEvent}.
+ */
+public interface TierService {
+    // Tiers for a player by name, loading them when they are not cached
+    @NotNull
+    CompletableFuture<TierProfile> getProfile(@NotNull String playerName);
+
+    // Tiers for a player by UUID; completes with null when the UUID has no known name
+    @NotNull
+    CompletableFuture<TierProfile> getProfile(@NotNull UUID uuid);
+
+    // Many players at once, keyed as given; unknown UUIDs map to null
+    @NotNull
+    CompletableFuture<Map<UUID, TierProfile>> getProfiles(@NotNull Collection<UUID> uuids);
+
+    @NotNull
+    CompletableFuture<Map<String, TierProfile>> getProfilesByName(@NotNull Collection<String> playerNames);
+
+    // What is in memory right now, never waiting on I/O; null when the player would have to be loaded
+    @Nullable
+    TierProfile getCached(@NotNull UUID uuid);
+}
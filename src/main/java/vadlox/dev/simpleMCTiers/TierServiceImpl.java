@@ -0,0 +1,145 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * {@link TierService} over the {@link TierChain}: a lookup here is the same one a placeholder
+ * rebuild does, sharing its caches and single-flight loads. Online players are answered from
+ * their {@link PlaceholderResolver} snapshot when only cached data is wanted.
+ */
+final class TierServiceImpl implements TierService {
+    // lookups a batch has running at once, so a large one does not flood the I/O queue
+    private static final int BATCH_WINDOW = 32;
+
+    private final TierChain chain;
+    private final TierFormatter formatter;
+    private final TierRepository tiers;
+    private final OverrideStore overrides;
+    private final IdentityResolver identities;
+    private final PlaceholderResolver resolver;
+    // name of an online player, else null
+    private final Function<UUID, String> onlineName;
+
+    private final Metrics.Counter lookups;
+    private final Metrics.Counter cachedHits;
+    private final Metrics.Counter cachedMisses;
+
+    TierServiceImpl(TierChain chain, TierFormatter formatter, TierRepository tiers, OverrideStore overrides,
+                    IdentityResolver identities, PlaceholderResolver resolver, Function<UUID, String> onlineName,
+                    Metrics metrics) {
+        this.chain = chain;
+        this.formatter = formatter;
+        this.tiers = tiers;
+        this.overrides = overrides;
+        this.identities = identities;
+        this.resolver = resolver;
+        this.onlineName = onlineName;
+        this.lookups      = metrics.counter("simplemctiers_service_requests_total", "kind", "lookup");
+        this.cachedHits   = metrics.counter("simplemctiers_service_requests_total", "kind", "cached_hit");
+        this.cachedMisses = metrics.counter("simplemctiers_service_requests_total", "kind", "cached_miss");
+    }
+
+    // ------------------------------------------------------------------------
+    // Lookups
+    // ------------------------------------------------------------------------
+    @Override
+    public CompletableFuture<TierProfile> getProfile(String playerName) {
+        return lookup(playerName, null);
+    }
+
+    @Override
+    public CompletableFuture<TierProfile> getProfile(UUID uuid) {
+        String name = nameOf(uuid);
+        return name != null ? lookup(name, uuid) : CompletableFuture.completedFuture(null);
+    }
+
+    private CompletableFuture<TierProfile> lookup(String name, UUID uuid) {
+        lookups.inc();
+        return chain.lookup(name).thenApply(result -> profile(name, uuid, result));
+    }
+
+    @Override
+    public CompletableFuture<Map<UUID, TierProfile>> getProfiles(Collection<UUID> uuids) {
+        return batch(uuids, this::getProfile);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, TierProfile>> getProfilesByName(Collection<String> playerNames) {
+        return batch(playerNames, this::getProfile);
+    }
+
+    @Override
+    public TierProfile getCached(UUID uuid) {
+        String name = nameOf(uuid);
+        if (name == null) return miss();
+        PlaceholderResolver.Snapshot s = resolver.snapshot(uuid);
+        if (s != null) {
+            cachedHits.inc();
+            return profile(s.name(), uuid, s.state(), s.builtAt());
+        }
+        // with the mctiers.com record in memory every source answers at once
+        if (!tiers.isCached(name)) return miss();
+        TierProfile p = chain.lookup(name).thenApply(result -> profile(name, uuid, result)).getNow(null);
+        if (p == null) return miss();
+        cachedHits.inc();
+        return p;
+    }
+
+    private TierProfile miss() {
+        cachedMisses.inc();
+        return null;
+    }
+
+    // Runs BATCH_WINDOW lookups at a time; duplicates are looked up once
+    private <K> CompletableFuture<Map<K, TierProfile>> batch(Collection<K> keys,
+                                                            Function<K, CompletableFuture<TierProfile>> lookup) {
+        List<K> distinct = new ArrayList<>(new LinkedHashSet<>(keys));
+        Map<K, TierProfile> out = new HashMap<>();
+        CompletableFuture<Void> done = CompletableFuture.completedFuture(null);
+        for (int from = 0; from < distinct.size(); from += BATCH_WINDOW) {
+            List<K> window = distinct.subList(from, Math.min(distinct.size(), from + BATCH_WINDOW));
+            done = done.thenCompose(v -> {
+                CompletableFuture<?>[] running = new CompletableFuture[window.size()];
+                for (int i = 0; i < running.length; i++) {
+                    K key = window.get(i);
+                    running[i] = lookup.apply(key).thenAccept(p -> { synchronized (out) { out.put(key, p); } });
+                }
+                return CompletableFuture.allOf(running);
+            });
+        }
+        return done.thenApply(v -> out);
+    }
+
+    // ------------------------------------------------------------------------
+    // Profiles
+    // ------------------------------------------------------------------------
+    // uuid == null: whatever the identity cache knows
+    private TierProfile profile(String name, UUID uuid, TierChain.Result result) {
+        return profile(name, uuid, formatter.state(name, result, tiers.peek(name)), System.currentTimeMillis());
+    }
+
+    private TierProfile profile(String name, UUID uuid, TierState state, long resolvedAt) {
+        TierRecord rec = tiers.peek(name);
+        Integer points = overrides.points(name);
+        if (points == null && rec != null) points = rec.points();
+        String region = rec != null && !rec.region().equals("N/A") ? rec.region() : null;
+        if (uuid == null) {
+            IdentityResolver.Identity id = identities.cached(name);
+            if (id != null) uuid = id.uuid();
+        }
+        return new TierProfile(name, uuid, state, points, region, resolvedAt);
+    }
+
+    private String nameOf(UUID uuid) {
+        String name = onlineName.apply(uuid);
+        return name != null ? name : identities.nameOf(uuid);
+    }
+}
@@ -0,0 +1,33 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * One provider of a player's tiers for the {@link TierChain}. A lookup answers every
+ * gamemode at once; sources backed by memory return an already completed future.
+ */
+interface TierSource {
+    // The rendered tier per gamemode ordinal, null where the source has none
+    record Tiers(String[] byMode) {
+        static final Tiers NONE = new Tiers(new String[Gamemode.values().length]);
+
+        static Tiers of(Function<Gamemode, String> tier) {
+            String[] byMode = new String[Gamemode.values().length];
+            for (Gamemode g : Gamemode.values()) byMode[g.ordinal()] = tier.apply(g);
+            return new Tiers(byMode);
+        }
+
+        String get(Gamemode mode) {
+            return byMode[mode.ordinal()];
+        }
+    }
+
+    // Name used in sources.order, sources.deadline and metric labels
+    String id();
+
+    // Shown after "Tier" in /tier output, e.g. " (VNL)"
+    String label();
+
+    CompletableFuture<Tiers> lookup(String playerName);
+}
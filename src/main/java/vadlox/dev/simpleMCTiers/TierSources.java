@@ -0,0 +1,82 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.bukkit.ChatColor;
+
+/**
+ * The built-in {@link TierSource}s, by the id used in sources.order:
+ * override (SQLite overrides), mctiers (mctiers.com), vanillalist (the scraped VanillaList
+ * page) and elo (the combat rank for the player's points, the same in every gamemode).
+ */
+final class TierSources {
+    static final List<String> IDS = List.of("override", "mctiers", "vanillalist", "elo");
+
+    private record Source(String id, String label, Function<String, CompletableFuture<TierSource.Tiers>> lookup)
+            implements TierSource {
+        @Override
+        public CompletableFuture<Tiers> lookup(String playerName) {
+            return lookup.apply(playerName);
+        }
+    }
+
+    private TierSources() {}
+
+    // @return the source with this id, or null when there is none
+    static TierSource byId(String id, OverrideStore overrides, TierRepository tiers,
+                           Supplier<VanillaListIndex> vanillaList, Metrics metrics) {
+        return switch (id) {
+            case "override"    -> override(overrides, metrics);
+            case "mctiers"     -> mcTiers(tiers);
+            case "vanillalist" -> vanillaList(vanillaList, metrics);
+            case "elo"         -> elo(overrides, tiers);
+            default            -> null;
+        };
+    }
+
+    static TierSource override(OverrideStore overrides, Metrics metrics) {
+        Metrics.Counter hits   = metrics.counter("simplemctiers_lookups_total", "source", "override", "result", "hit");
+        Metrics.Counter misses = metrics.counter("simplemctiers_lookups_total", "source", "override", "result", "miss");
+        return new Source("override", "", name -> CompletableFuture.completedFuture(TierSource.Tiers.of(g -> {
+            Integer t = overrides.tier(name, g.id());
+            (t != null ? hits : misses).inc();
+            return t != null ? ChatColor.AQUA.toString() + t : null;
+        })));
+    }
+
+    static TierSource mcTiers(TierRepository tiers) {
+        return new Source("mctiers", "", name -> tiers.fetchAsync(name).thenApply(rec -> TierSource.Tiers.of(g -> {
+            String code = rec.tierCode(g);
+            return code != null ? ChatColor.AQUA + code : null;
+        })));
+    }
+
+    static TierSource vanillaList(Supplier<VanillaListIndex> vanillaList, Metrics metrics) {
+        Metrics.Counter hits   = metrics.counter("simplemctiers_lookups_total", "source", "vanillalist", "result", "hit");
+        Metrics.Counter misses = metrics.counter("simplemctiers_lookups_total", "source", "vanillalist", "result", "miss");
+        return new Source("vanillalist", " (VNL)", name -> {
+            VanillaListIndex index = vanillaList.get();
+            return CompletableFuture.completedFuture(TierSource.Tiers.of(g -> {
+                String code = index.get(name, g.id());
+                (code != null ? hits : misses).inc();
+                return code != null ? ChatColor.AQUA + code : null;
+            }));
+        });
+    }
+
+    // Override points answer at once; otherwise the points come with the mctiers.com record
+    static TierSource elo(OverrideStore overrides, TierRepository tiers) {
+        return new Source("elo", " (ELO)", name -> {
+            Integer points = overrides.points(name);
+            CompletableFuture<Integer> pts = points != null
+                    ? CompletableFuture.completedFuture(points)
+                    : tiers.fetchAsync(name).thenApply(TierRecord::points);
+            return pts.thenApply(p -> {
+                String rank = TierFormatter.coloredRank(p);
+                return rank != null ? TierSource.Tiers.of(g -> rank) : TierSource.Tiers.NONE;
+            });
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The values behind one player's placeholders, without colour codes, and the source each
+ * came from. Kept with the {@link PlaceholderResolver} snapshot so a rebuild can tell what
+ * changed ({@link TierChangeEvent}). Arrays are indexed by gamemode ordinal; null = none.
+ */
+record TierState(String[] tiers, String[] sources, String[] vanillaList, String combatRank, String combatRankSource) {
+    // One changed value, as reported by TierChangeEvent
+    record Change(TierChangeEvent.Kind kind, String mode, String before, String after, String source) {}
+
+    List<Change> changesSince(TierState before) {
+        List<Change> out = new ArrayList<>(0);
+        for (Gamemode g : Gamemode.values()) {
+            int i = g.ordinal();
+            if (!Objects.equals(before.tiers[i], tiers[i]) || !Objects.equals(before.sources[i], sources[i])) {
+                out.add(new Change(TierChangeEvent.Kind.TIER, g.id(), before.tiers[i], tiers[i], sources[i]));
+            }
+            if (!Objects.equals(before.vanillaList[i], vanillaList[i])) {
+                out.add(new Change(TierChangeEvent.Kind.VANILLALIST, g.id(), before.vanillaList[i], vanillaList[i],
+                        vanillaList[i] != null ? "vanillalist" : null));
+            }
+        }
+        if (!Objects.equals(before.combatRank, combatRank) || !Objects.equals(before.combatRankSource, combatRankSource)) {
+            out.add(new Change(TierChangeEvent.Kind.COMBAT_RANK, "overall", before.combatRank, combatRank, combatRankSource));
+        }
+        return out;
+    }
+}
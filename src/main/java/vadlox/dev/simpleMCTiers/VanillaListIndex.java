@@ -0,0 +1,316 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Immutable, case-insensitive index of the VanillaList leaderboard:
+ * player name -> (gamemode -> tier code, e.g. HT3).
+ * Built once per page refresh in a single streaming pass over the HTML, into one compact
+ * byte image (sorted name table plus one packed tier byte per player and mode) that is
+ * written to disk and memory-mapped, so neither the page nor per-player objects stay on the heap.
+ */
+final class VanillaListIndex {
+    // Layout, big-endian:
+    //   int MAGIC, int VERSION, long builtAt, int count, byte modes, per mode: byte length + UTF-8 id
+    //   int[count + 1] offsets into the name bytes
+    //   name bytes: lower-case UTF-8, sorted by unsigned byte order
+    //   byte[count * modes] tiers, one row per player: 0 = none, bit 7 set = HT, low 7 bits = number
+    private static final int MAGIC = 0x564C4958; // "VLIX"
+    private static final int VERSION = 1;
+
+    // packed tier byte -> code, built once so lookups never allocate one
+    private static final String[] CODES = new String[256];
+    static {
+        for (int n = 1; n < 128; n++) {
+            CODES[n] = "LT" + n;
+            CODES[0x80 | n] = "HT" + n;
+        }
+    }
+
+    static final VanillaListIndex EMPTY = encode(Map.of(), 0L);
+
+    private final ByteBuffer buf;
+    private final long builtAt;
+    private final int count;
+    private final String[] modes;
+    private final int offsetsAt;
+    private final int namesAt;
+    private final int tiersAt;
+
+    private VanillaListIndex(ByteBuffer buf) throws IOException {
+        if (buf.limit() < 21 || buf.getInt(0) != MAGIC || buf.getInt(4) != VERSION) {
+            throw new IOException("not a VanillaList index");
+        }
+        this.buf = buf;
+        this.builtAt = buf.getLong(8);
+        this.count = buf.getInt(16);
+        int at = 20;
+        this.modes = new String[buf.get(at++) & 0xFF];
+        for (int i = 0; i < modes.length; i++) {
+            byte[] id = new byte[buf.get(at++) & 0xFF];
+            buf.get(at, id);
+            at += id.length;
+            modes[i] = new String(id, StandardCharsets.UTF_8);
+        }
+        if (count < 0) throw new IOException("corrupt VanillaList index");
+        this.offsetsAt = at;
+        this.namesAt = offsetsAt + (count + 1) * 4;
+        this.tiersAt = namesAt + buf.getInt(offsetsAt + count * 4);
+        if (tiersAt + (long) count * modes.length != buf.limit()) throw new IOException("truncated VanillaList index");
+    }
+
+    // ------------------------------------------------------------------------
+    // Lookups (allocation-free for ASCII names)
+    // ------------------------------------------------------------------------
+    String get(String playerName, String gamemode) {
+        int m = mode(gamemode);
+        if (m < 0) return null;
+        int row = find(playerName);
+        return row >= 0 ? CODES[buf.get(tiersAt + row * modes.length + m) & 0xFF] : null;
+    }
+
+    // Canonical (lower-case) names of every listed player
+    List<String> names() {
+        List<String> out = new ArrayList<>(count);
+        for (int row = 0; row < count; row++) {
+            int start = buf.getInt(offsetsAt + row * 4), end = buf.getInt(offsetsAt + row * 4 + 4);
+            byte[] name = new byte[end - start];
+            buf.get(namesAt + start, name);
+            out.add(new String(name, StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    int size() { return count; }
+
+    long builtAt() { return builtAt; }
+
+    private int mode(String gamemode) {
+        for (int i = 0; i < modes.length; i++) if (modes[i].equals(gamemode)) return i;
+        return -1;
+    }
+
+    private int find(String playerName) {
+        byte[] key = null;
+        for (int i = 0; i < playerName.length(); i++) {
+            if (playerName.charAt(i) >= 0x80) {
+                key = playerName.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8);
+                break;
+            }
+        }
+        int lo = 0, hi = count - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = compare(mid, playerName, key);
+            if (cmp < 0) lo = mid + 1;
+            else if (cmp > 0) hi = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    // Stored name of row vs the key: the UTF-8 bytes when given, else the ASCII name lower-cased on the fly
+    private int compare(int row, String ascii, byte[] key) {
+        int start = namesAt + buf.getInt(offsetsAt + row * 4);
+        int len = namesAt + buf.getInt(offsetsAt + row * 4 + 4) - start;
+        int n = key != null ? key.length : ascii.length();
+        for (int i = 0, k = Math.min(len, n); i < k; i++) {
+            int a = buf.get(start + i) & 0xFF;
+            int b = key != null ? key[i] & 0xFF : lower(ascii.charAt(i));
+            if (a != b) return a - b;
+        }
+        return len - n;
+    }
+
+    private static int lower(char c) {
+        return c >= 'A' && c <= 'Z' ? c + ('a' - 'A') : c;
+    }
+
+    // ------------------------------------------------------------------------
+    // On disk
+    // ------------------------------------------------------------------------
+    void write(File file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer src = buf.duplicate().position(0);
+            while (src.hasRemaining()) ch.write(src);
+        }
+    }
+
+    // Memory-maps a file written by write(); the mapping outlives the channel
+    static VanillaListIndex map(File file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new VanillaListIndex(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    // name -> (mode -> code) into the byte image
+    private static VanillaListIndex encode(Map<String, Map<String, String>> entries, long builtAt) {
+        TreeSet<String> modeSet = new TreeSet<>();
+        entries.values().forEach(m -> modeSet.addAll(m.keySet()));
+        // ids are stored with a one-byte length, and there are a handful of modes
+        modeSet.removeIf(m -> m.getBytes(StandardCharsets.UTF_8).length > 255);
+        byte[][] modes = modeSet.stream().map(m -> m.getBytes(StandardCharsets.UTF_8)).limit(255).toArray(byte[][]::new);
+        byte[][] names = new byte[entries.size()][];
+        int i = 0, nameBytes = 0;
+        for (String name : entries.keySet()) {
+            names[i] = name.getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[i++].length;
+        }
+        Arrays.sort(names, Arrays::compareUnsigned);
+
+        int header = 21;
+        for (byte[] m : modes) header += 1 + m.length;
+        ByteBuffer out = ByteBuffer.allocate(header + (names.length + 1) * 4 + nameBytes + names.length * modes.length);
+        out.putInt(MAGIC).putInt(VERSION).putLong(builtAt).putInt(names.length).put((byte) modes.length);
+        for (byte[] m : modes) out.put((byte) m.length).put(m);
+        int offset = 0;
+        for (byte[] name : names) {
+            out.putInt(offset);
+            offset += name.length;
+        }
+        out.putInt(offset);
+        for (byte[] name : names) out.put(name);
+        for (byte[] name : names) {
+            Map<String, String> tiers = entries.get(new String(name, StandardCharsets.UTF_8));
+            for (byte[] m : modes) out.put(pack(tiers.get(new String(m, StandardCharsets.UTF_8))));
+        }
+        try {
+            return new VanillaListIndex(out.flip());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // HT3 -> 0x83, LT3 -> 0x03; 0 for none or a number past 127
+    private static byte pack(String code) {
+        if (code == null) return 0;
+        int n = Integer.parseInt(code.substring(2));
+        return n < 1 || n > 127 ? 0 : (byte) ((code.charAt(0) == 'H' ? 0x80 : 0) | n);
+    }
+
+    // ------------------------------------------------------------------------
+    // Streaming parser
+    // ------------------------------------------------------------------------
+    static VanillaListIndex parse(Reader in) throws IOException {
+        return parse(in, System.currentTimeMillis());
+    }
+
+    // Walks the page tag by tag, collecting two kinds of entries:
+    //  - rows (<tr>) of the overall ranking: the first data-name, then each mode icon
+    //    (<img src=".../<mode>.svg">) paired with the following player-tier span
+    //  - per-mode sections (<div id="<mode>" class="content-section">): each data-name
+    //    paired with the following player-tier span
+    // Overall rows come first on the page and win over the per-mode lists.
+    static VanillaListIndex parse(Reader in, long builtAt) throws IOException {
+        Map<String, Map<String,String>> out = new HashMap<>(1024);
+        StringBuilder tag = new StringBuilder(256);
+        StringBuilder text = new StringBuilder(16);
+
+        boolean inRow = false;
+        String rowName = null, rowMode = null;
+        String sectionMode = null, listName = null;
+        // target of the player-tier span currently being read
+        String spanName = null, spanMode = null;
+
+        int c;
+        while ((c = in.read()) != -1) {
+            if (c != '<') {
+                if (spanName != null) text.append((char) c);
+                continue;
+            }
+            tag.setLength(0);
+            while ((c = in.read()) != -1 && c != '>') tag.append((char) c);
+
+            if (spanName != null) {
+                String code = text.toString().trim().toUpperCase(Locale.ROOT);
+                if (isTierCode(code)) {
+                    out.computeIfAbsent(spanName.toLowerCase(Locale.ROOT), k -> new HashMap<>(8))
+                            .putIfAbsent(spanMode, code);
+                }
+                spanName = spanMode = null;
+                rowMode = null;
+                listName = null;
+            }
+
+            if (startsWith(tag, "tr")) {
+                inRow = true;
+                rowName = rowMode = null;
+            } else if (startsWith(tag, "/tr")) {
+                inRow = false;
+            } else if (startsWith(tag, "div")) {
+                String cls = attribute(tag, "class");
+                String id = attribute(tag, "id");
+                if (id != null && cls != null && cls.contains("content-section")) {
+                    sectionMode = id.equalsIgnoreCase("overall") ? null : normalizeMode(id);
+                    listName = null;
+                }
+            } else if (startsWith(tag, "a")) {
+                String name = attribute(tag, "data-name");
+                if (name != null && !name.isBlank()) {
+                    if (inRow) { if (rowName == null) rowName = name.trim(); }
+                    else if (sectionMode != null) listName = name.trim();
+                }
+            } else if (inRow && rowName != null && startsWith(tag, "img")) {
+                String src = attribute(tag, "src");
+                if (src != null && src.endsWith(".svg")) {
+                    rowMode = normalizeMode(src.substring(src.lastIndexOf('/') + 1, src.length() - 4));
+                }
+            } else if (startsWith(tag, "span")) {
+                String cls = attribute(tag, "class");
+                if (cls != null && cls.contains("player-tier")) {
+                    if (inRow && rowName != null && rowMode != null) { spanName = rowName; spanMode = rowMode; }
+                    else if (!inRow && listName != null) { spanName = listName; spanMode = sectionMode; }
+                    text.setLength(0);
+                }
+            }
+        }
+        return encode(out, builtAt);
+    }
+
+    private static String normalizeMode(String mode) {
+        mode = mode.toLowerCase(Locale.ROOT);
+        return switch (mode) {
+            case "diapot" -> "pot";
+            case "smpkit" -> "smp";
+            case "crystal" -> "vanilla";
+            default -> mode;
+        };
+    }
+
+    private static boolean isTierCode(String s) {
+        if (s.length() < 3 || s.length() > 5 || (s.charAt(0) != 'H' && s.charAt(0) != 'L') || s.charAt(1) != 'T') return false;
+        for (int i = 2; i < s.length(); i++) if (!Character.isDigit(s.charAt(i))) return false;
+        return true;
+    }
+
+    private static boolean startsWith(CharSequence tag, String name) {
+        int n = name.length();
+        if (tag.length() < n) return false;
+        for (int i = 0; i < n; i++) {
+            if (Character.toLowerCase(tag.charAt(i)) != name.charAt(i)) return false;
+        }
+        return tag.length() == n || Character.isWhitespace(tag.charAt(n)) || tag.charAt(n) == '/';
+    }
+
+    private static String attribute(StringBuilder tag, String attr) {
+        int i = tag.indexOf(attr + "=\"");
+        if (i < 0) return null;
+        int start = i + attr.length() + 2;
+        int end = tag.indexOf("\"", start);
+        return end < 0 ? null : tag.substring(start, end);
+    }
+}
@@ -0,0 +1,249 @@
+package vadlox.dev.simpleMCTiers;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Owns the current {@link VanillaListIndex}. The page is downloaded on a fixed schedule
+ * (never because a lookup missed), concurrent refresh requests share one in-flight fetch,
+ * and the stored ETag / Last-Modified validators turn an unchanged page into a 304.
+ * The page is parsed as it downloads; only the resulting {@link VanillaListIndex} is kept,
+ * in vanillalist-&lt;builtAt&gt;.idx, which is memory-mapped. Every build gets a new file, so a
+ * mapped one is never overwritten (Windows refuses to), and older ones are deleted afterwards.
+ */
+final class VanillaListRefresher {
+    private final String url;
+    private final HttpFetcher http;
+    private final HttpFetcher.Endpoint endpoint;
+    private final File dataFolder;
+    // the raw page older versions kept; converted to an index file once
+    private final File legacyPage;
+    private final File metaFile;
+    private final Supplier<InputStream> bundled;
+    private final Consumer<VanillaListIndex> onSwap;
+    private final Logger logger;
+
+    private final ScheduledExecutorService executor;
+    private final AtomicReference<CompletableFuture<VanillaListIndex>> inFlight = new AtomicReference<>();
+    private volatile VanillaListIndex index = VanillaListIndex.EMPTY;
+    private volatile String etag;
+    private volatile String lastModified;
+
+    VanillaListRefresher(String url, HttpFetcher http, HttpFetcher.Endpoint endpoint, File dataFolder,
+                         Supplier<InputStream> bundled, Consumer<VanillaListIndex> onSwap, Logger logger) {
+        this.url = url;
+        this.http = http;
+        this.endpoint = endpoint;
+        this.dataFolder = dataFolder;
+        this.legacyPage = new File(dataFolder, "vanillalist_live.html");
+        this.metaFile = new File(dataFolder, "vanillalist_live.properties");
+        this.bundled = bundled;
+        this.onSwap = onSwap;
+        this.logger = logger;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "SimpleMCTiers-VanillaList");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // Serve the newest index file (else the bundled page) right away. A downloaded index is only
+    // refreshed once it is actually due; the bundled one is refreshed now.
+    void start(long intervalSeconds) {
+        long interval = Math.max(60, intervalSeconds);
+        loadLocal();
+        long age = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() - index.builtAt());
+        long delay = Math.max(0, Math.min(interval, interval - age));
+        executor.scheduleWithFixedDelay(this::refresh, delay, interval, TimeUnit.SECONDS);
+    }
+
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    VanillaListIndex index() {
+        return index;
+    }
+
+    /**
+     * Starts a refresh unless one is already running, in which case its future is returned.
+     * Completes with the index in use afterwards (unchanged on 304 or failure).
+     */
+    CompletableFuture<VanillaListIndex> refresh() {
+        CompletableFuture<VanillaListIndex> mine = new CompletableFuture<>();
+        CompletableFuture<VanillaListIndex> running = inFlight.compareAndExchange(null, mine);
+        if (running != null) return running;
+        try {
+            executor.execute(() -> {
+                try {
+                    mine.complete(fetch());
+                } catch (Throwable t) {
+                    mine.complete(index);
+                } finally {
+                    inFlight.set(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            // executor shut down
+            inFlight.set(null);
+            mine.complete(index);
+        }
+        return mine;
+    }
+
+    // ------------------------------------------------------------------------
+    // Fetching
+    // ------------------------------------------------------------------------
+    private VanillaListIndex fetch() {
+        Map<String,String> headers = new HashMap<>();
+        headers.put("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8");
+        // only send validators if we still have an index of the page they describe
+        if (index.builtAt() > 0) {
+            if (etag != null) headers.put("If-None-Match", etag);
+            if (lastModified != null) headers.put("If-Modified-Since", lastModified);
+        }
+        try {
+            return http.get(endpoint, url, headers, (status, respHeaders, body) -> {
+                if (status == 304) return index;
+                if (status != 200) {
+                    logger.warning("VanillaList refresh failed: HTTP " + status);
+                    return index;
+                }
+                // parsed straight off the connection (streamed, never held whole); a failed or timed-out
+                // download throws before anything is replaced
+                VanillaListIndex parsed;
+                try (Reader r = reader(body)) {
+                    parsed = VanillaListIndex.parse(r, System.currentTimeMillis());
+                }
+                if (parsed.size() == 0) { // basic sanity: an error page or a new layout
+                    logger.warning("VanillaList refresh found no players, keeping the current index");
+                    return index;
+                }
+                VanillaListIndex fresh = store(parsed);
+                etag = respHeaders.firstValue("ETag").orElse(null);
+                lastModified = respHeaders.firstValue("Last-Modified").orElse(null);
+                saveMeta();
+                swap(fresh);
+                return fresh;
+            });
+        } catch (IOException e) {
+            logger.warning("VanillaList refresh failed: " + e.getMessage());
+            return index;
+        }
+    }
+
+    private void swap(VanillaListIndex fresh) {
+        index = fresh;
+        onSwap.accept(fresh);
+    }
+
+    // ------------------------------------------------------------------------
+    // Local copies (index files + validators, bundled page)
+    // ------------------------------------------------------------------------
+    private void loadLocal() {
+        for (File file : indexFiles()) {
+            try {
+                index = VanillaListIndex.map(file);
+                loadMeta();
+                return;
+            } catch (IOException e) {
+                logger.warning("Ignoring " + file.getName() + ": " + e.getMessage());
+            }
+        }
+        if (legacyPage.exists()) {
+            try (Reader r = reader(new FileInputStream(legacyPage))) {
+                index = store(VanillaListIndex.parse(r, legacyPage.lastModified()));
+                loadMeta();
+                legacyPage.delete();
+                return;
+            } catch (IOException e) {
+                logger.warning("Could not read " + legacyPage.getName() + ": " + e.getMessage());
+            }
+        }
+        // built at 0: due for a refresh at once, without validators
+        try (InputStream is = bundled.get()) {
+            if (is != null) {
+                try (Reader r = reader(is)) { index = store(VanillaListIndex.parse(r, 0L)); }
+            }
+        } catch (IOException e) {
+            logger.warning("Could not read bundled VanillaList page: " + e.getMessage());
+        }
+    }
+
+    // Writes a new index file and maps it; in memory only when the file cannot be written
+    private VanillaListIndex store(VanillaListIndex built) {
+        File file = new File(dataFolder, "vanillalist-" + built.builtAt() + ".idx");
+        File tmp = new File(dataFolder, file.getName() + ".tmp");
+        try {
+            built.write(tmp);
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            VanillaListIndex mapped = VanillaListIndex.map(file);
+            // files still mapped (Windows) stay until a later build removes them
+            for (File old : indexFiles()) if (!old.equals(file)) old.delete();
+            return mapped;
+        } catch (IOException e) {
+            logger.warning("Could not write " + file.getName() + ", keeping the index in memory: " + e.getMessage());
+            tmp.delete();
+            return built;
+        }
+    }
+
+    // Newest first
+    private File[] indexFiles() {
+        File[] files = dataFolder.listFiles((dir, name) -> name.matches("vanillalist-\\d+\\.idx"));
+        if (files == null) return new File[0];
+        Arrays.sort(files, Comparator.comparingLong(VanillaListRefresher::builtAt).reversed());
+        return files;
+    }
+
+    private static long builtAt(File indexFile) {
+        String n = indexFile.getName();
+        return Long.parseLong(n.substring("vanillalist-".length(), n.length() - ".idx".length()));
+    }
+
+    private void loadMeta() {
+        if (!metaFile.exists()) return;
+        Properties p = new Properties();
+        try (InputStream in = new FileInputStream(metaFile)) {
+            p.load(in);
+            etag = p.getProperty("etag");
+            lastModified = p.getProperty("last-modified");
+        } catch (IOException ignored) {}
+    }
+
+    private void saveMeta() {
+        Properties p = new Properties();
+        if (etag != null) p.setProperty("etag", etag);
+        if (lastModified != null) p.setProperty("last-modified", lastModified);
+        try (OutputStream out = new FileOutputStream(metaFile)) {
+            p.store(out, "VanillaList page validators");
+        } catch (IOException ignored) {}
+    }
+
+    private static Reader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+}